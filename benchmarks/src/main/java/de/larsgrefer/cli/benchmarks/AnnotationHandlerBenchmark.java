@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.benchmarks;
+
+import de.larsgrefer.cli.AnnotationHandler;
+import de.larsgrefer.cli.annotations.CliOption;
+import de.larsgrefer.cli.exceptions.DuplicateOptionException;
+import de.larsgrefer.cli.exceptions.NoArgumentAllowedException;
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link AnnotationHandler#fillOptions(java.lang.Object, java.lang.String[])}.
+ * <p>
+ * {@link GeneratedOptions} is bound by the OptionsBinder generated for it, {@link ReflectiveOptions} has private fields
+ * and is bound by reflection.
+ *
+ * @author Lars Grefer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnnotationHandlerBenchmark {
+
+	@Param({"small", "large"})
+	public String commandLine;
+
+	private AnnotationHandler annotationHandler;
+	private String[] args;
+
+	@Setup
+	public void setup() {
+		annotationHandler = new AnnotationHandler();
+		if (commandLine.equals("small")) {
+			args = new String[]{"-vq", "--count", "42", "-f", "/tmp/file"};
+		} else {
+			args = new String[105];
+			args[0] = "-v";
+			args[1] = "--count";
+			args[2] = "42";
+			args[3] = "-n";
+			for (int i = 4; i < args.length; i++) {
+				args[i] = "name" + i;
+			}
+		}
+	}
+
+	@Benchmark
+	public Object fillGenerated() throws DuplicateOptionException, NoArgumentAllowedException, IllegalAccessException {
+		GeneratedOptions options = new GeneratedOptions();
+		annotationHandler.fillOptions(options, args);
+		return options;
+	}
+
+	@Benchmark
+	public Object fillReflective() throws DuplicateOptionException, NoArgumentAllowedException, IllegalAccessException {
+		ReflectiveOptions options = new ReflectiveOptions();
+		annotationHandler.fillOptions(options, args);
+		return options;
+	}
+
+	public static class GeneratedOptions {
+
+		@CliOption(name = 'v', longName = "verbose")
+		boolean verbose;
+
+		@CliOption(name = 'q', longName = "quiet")
+		boolean quiet;
+
+		@CliOption(name = 'c', longName = "count")
+		int count;
+
+		@CliOption(name = 'l', longName = "limit")
+		long limit;
+
+		@CliOption(name = 'f', longName = "file")
+		File file;
+
+		@CliOption(name = 'n', longName = "names")
+		List<String> names;
+	}
+
+	public static class ReflectiveOptions {
+
+		@CliOption(name = 'v', longName = "verbose")
+		private boolean verbose;
+
+		@CliOption(name = 'q', longName = "quiet")
+		private boolean quiet;
+
+		@CliOption(name = 'c', longName = "count")
+		private int count;
+
+		@CliOption(name = 'l', longName = "limit")
+		private long limit;
+
+		@CliOption(name = 'f', longName = "file")
+		private File file;
+
+		@CliOption(name = 'n', longName = "names")
+		private List<String> names;
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.benchmarks;
+
+import de.larsgrefer.cli.ArgsHandler;
+import de.larsgrefer.cli.OptionKey;
+import de.larsgrefer.cli.ParseResult;
+import de.larsgrefer.cli.ParserSpec;
+import de.larsgrefer.cli.exceptions.DuplicateOptionException;
+import de.larsgrefer.cli.exceptions.NoArgumentAllowedException;
+import de.larsgrefer.cli.model.CommandLineOption;
+import de.larsgrefer.cli.model.SimpleArgumentedOption;
+import de.larsgrefer.cli.model.SimpleOption;
+import de.larsgrefer.cli.parser.StringParser;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ArgsHandler#fillOptionWithArgs(java.lang.String[])} and {@link ParserSpec#parse(java.lang.String[])}
+ * for small and large command lines and option sets.
+ * <p>
+ * Only flags and single valued String options are used, so everything allocated per operation is allocated by the
+ * parser itself.
+ *
+ * @author Lars Grefer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArgsHandlerBenchmark {
+
+	@Param({"10", "50", "1000"})
+	public int tokens;
+
+	/**
+	 * Number of flags and number of valued options, each
+	 */
+	@Param({"4", "26", "200"})
+	public int options;
+
+	private ArgsHandler<List<CommandLineOption>> argsHandler;
+	private ParserSpec parserSpec;
+	private OptionKey<String> lastValue;
+	private String[] args;
+	private String[] attachedArgs;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() throws DuplicateOptionException {
+		argsHandler = new ArgsHandler<>(createOptions(options));
+		parserSpec = new ParserSpec(createOptions(options));
+		lastValue = parserSpec.keyOf((CommandLineOption<String>) parserSpec.getOption(parserSpec.size() - 1));
+		args = createArgs(tokens, options);
+		attachedArgs = createAttachedArgs(tokens, options);
+	}
+
+	/**
+	 * Creates {@code count} flags and {@code count} String options. Short names are only given to the first 26 of
+	 * each kind.
+	 */
+	static List<CommandLineOption> createOptions(int count) {
+		List<CommandLineOption> result = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			char name = i < 26 ? (char) ('a' + i) : '\0';
+			result.add(new SimpleOption(name, "flag-" + i, false, ""));
+		}
+		for (int i = 0; i < count; i++) {
+			char name = i < 26 ? (char) ('A' + i) : '\0';
+			result.add(new SimpleArgumentedOption<>(name, "value-" + i, false, "", new StringParser()));
+		}
+		return result;
+	}
+
+	/**
+	 * Creates a command line mixing collapsed short flags, long flags and short and long options with a value
+	 */
+	static String[] createArgs(int tokens, int options) {
+		String last = Integer.toString(options - 1);
+		String[] pattern = {"-abc", "--flag-" + last, "-A", "foo", "--value-" + last, "bar", "-d", "--flag-0", "-B", "baz"};
+		String[] result = new String[tokens];
+		for (int i = 0; i < tokens; i++) {
+			result[i] = pattern[i % pattern.length];
+		}
+		return result;
+	}
+
+	/**
+	 * Like {@link #createArgs(int, int)}, but the long options get their value with {@code --name=value}
+	 */
+	static String[] createAttachedArgs(int tokens, int options) {
+		String last = Integer.toString(options - 1);
+		String[] pattern = {"-abc", "--flag-" + last, "-A", "foo", "--value-" + last + "=bar", "-d", "--flag-0", "-B", "baz"};
+		String[] result = new String[tokens];
+		for (int i = 0; i < tokens; i++) {
+			result[i] = pattern[i % pattern.length];
+		}
+		return result;
+	}
+
+	@Benchmark
+	public List<CommandLineOption> fillOptionWithArgs() throws NoArgumentAllowedException {
+		return argsHandler.fillOptionWithArgs(args);
+	}
+
+	@Benchmark
+	public ParseResult parse() throws NoArgumentAllowedException {
+		return parserSpec.parse(args);
+	}
+
+	@Benchmark
+	public ParseResult parseAttached() throws NoArgumentAllowedException {
+		return parserSpec.parse(attachedArgs);
+	}
+
+	/**
+	 * Parses and reads one value with an {@link OptionKey}, which does not add any allocation to the parse
+	 */
+	@Benchmark
+	public String parseAndGet() throws NoArgumentAllowedException {
+		return parserSpec.parse(args).get(lastValue);
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.benchmarks;
+
+import de.larsgrefer.cli.parser.ByteParser;
+import de.larsgrefer.cli.parser.CharParser;
+import de.larsgrefer.cli.parser.DurationParser;
+import de.larsgrefer.cli.parser.ErrorChannel;
+import de.larsgrefer.cli.parser.FileParser;
+import de.larsgrefer.cli.parser.IntParser;
+import de.larsgrefer.cli.parser.LongParser;
+import de.larsgrefer.cli.parser.ShortParser;
+import de.larsgrefer.cli.parser.SizeParser;
+import de.larsgrefer.cli.parser.StringParser;
+import de.larsgrefer.cli.parser.UrlParser;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the value conversion of the built-in {@link de.larsgrefer.cli.parser.ArgumentParser}s.
+ * <p>
+ * The inputs are read from non-final fields so they can not be constant folded.
+ *
+ * @author Lars Grefer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArgumentParserBenchmark {
+
+	private final StringParser stringParser = new StringParser();
+	private final CharParser charParser = new CharParser();
+	private final ByteParser byteParser = new ByteParser();
+	private final ShortParser shortParser = new ShortParser();
+	private final IntParser intParser = new IntParser();
+	private final LongParser longParser = new LongParser();
+	private final SizeParser sizeParser = new SizeParser();
+	private final DurationParser durationParser = new DurationParser();
+	private final ErrorChannel errors = new ErrorChannel();
+	private final FileParser fileParser = new FileParser();
+	private final UrlParser urlParser = new UrlParser();
+
+	public String text = "some text";
+	public String byteValue = "42";
+	public String shortValue = "4242";
+	public String intValue = "42424242";
+	public String hexIntValue = "0x2874A42";
+	public String longValue = "4242424242424242";
+	public String invalidIntValue = "4242x";
+	public String sizeValue = "64k";
+	public String durationValue = "500ms";
+	public String file = "/var/tmp/some/file.txt";
+	public String url = "https://example.com/some/path?query=1";
+
+	@Benchmark
+	public Object stringParser() {
+		return stringParser.parse(text);
+	}
+
+	@Benchmark
+	public Object charParser() {
+		return charParser.parse(text);
+	}
+
+	@Benchmark
+	public Object byteParser() {
+		return byteParser.parse(byteValue);
+	}
+
+	@Benchmark
+	public Object shortParser() {
+		return shortParser.parse(shortValue);
+	}
+
+	@Benchmark
+	public Object intParser() {
+		return intParser.parse(intValue);
+	}
+
+	@Benchmark
+	public Object intParserHex() {
+		return intParser.parse(hexIntValue);
+	}
+
+	@Benchmark
+	public int intParserPrimitiveHex() {
+		return intParser.parseInt(hexIntValue);
+	}
+
+	@Benchmark
+	public Object intParserInvalidException() {
+		try {
+			return intParser.parseInt(invalidIntValue);
+		} catch (NumberFormatException ex) {
+			return ex;
+		}
+	}
+
+	@Benchmark
+	public int intParserInvalidErrorChannel() {
+		errors.clear();
+		return intParser.parseInt(invalidIntValue, 0, invalidIntValue.length(), errors);
+	}
+
+	@Benchmark
+	public long sizeParser() {
+		return sizeParser.parseLong(sizeValue);
+	}
+
+	@Benchmark
+	public long durationParser() {
+		return durationParser.parseLong(durationValue);
+	}
+
+	@Benchmark
+	public Object longParser() {
+		return longParser.parse(longValue);
+	}
+
+	@Benchmark
+	public Object fileParser() {
+		return fileParser.parse(file);
+	}
+
+	@Benchmark
+	public Object urlParser() {
+		return urlParser.parse(url);
+	}
+}
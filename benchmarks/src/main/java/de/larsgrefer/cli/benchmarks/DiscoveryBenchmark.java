@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.larsgrefer.cli.benchmarks;
+
+import de.larsgrefer.cli.AnnotationHandler;
+import de.larsgrefer.cli.benchmarks.AnnotationHandlerBenchmark.GeneratedOptions;
+import de.larsgrefer.cli.model.CommandLineOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link AnnotationHandler#getOptions(java.util.Collection)} for many objects, sequentially and in parallel.
+ * <p>
+ * The number of objects at which {@link #parallel()} overtakes {@link #sequential()} is the point from which
+ * {@link AnnotationHandler#DEFAULT_PARALLEL_DISCOVERY_THRESHOLD} should let the discovery go parallel.
+ *
+ * @author Lars Grefer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiscoveryBenchmark {
+
+	@Param({"1", "20", "100", "1000", "10000"})
+	public int objects;
+
+	private AnnotationHandler sequentialHandler;
+	private AnnotationHandler parallelHandler;
+	private List<Object> targets;
+
+	@Setup
+	public void setup() {
+		sequentialHandler = new AnnotationHandler();
+		sequentialHandler.setParallelDiscoveryThreshold(Integer.MAX_VALUE);
+		parallelHandler = new AnnotationHandler();
+		parallelHandler.setParallelDiscoveryThreshold(1);
+
+		targets = new ArrayList<>(objects);
+		for (int i = 0; i < objects; i++) {
+			targets.add(new GeneratedOptions());
+		}
+	}
+
+	@Benchmark
+	public List<CommandLineOption> sequential() {
+		return sequentialHandler.getOptions(targets).collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public List<CommandLineOption> parallel() {
+		return parallelHandler.getOptions(targets).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.larsgrefer.cli.benchmarks;
+
+import de.larsgrefer.cli.AnnotationHandler;
+import de.larsgrefer.cli.Diagnostics;
+import de.larsgrefer.cli.benchmarks.AnnotationHandlerBenchmark.GeneratedOptions;
+import de.larsgrefer.cli.exceptions.DuplicateOptionException;
+import de.larsgrefer.cli.exceptions.NoArgumentAllowedException;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of diagnostic logging per {@link AnnotationHandler#fillOptions(java.lang.Object, java.lang.String[])}
+ * call.
+ * <p>
+ * {@link #fillLegacyLogging()} repeats the logging that was done on every call before the loggers were cached and
+ * guarded: a logger lookup, {@code entry} and two {@code info} messages. {@link #fillDiagnosticsDisabled()} runs in
+ * a JVM started with {@code -Dde.larsgrefer.cli.diagnostics=false}.
+ *
+ * @author Lars Grefer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+	private AnnotationHandler annotationHandler;
+	private String[] args;
+
+	@Setup
+	public void setup() {
+		annotationHandler = new AnnotationHandler();
+		args = new String[]{"-vq", "--count", "42", "-f", "/tmp/file"};
+	}
+
+	@Benchmark
+	public Object fillLegacyLogging() throws DuplicateOptionException, NoArgumentAllowedException, IllegalAccessException {
+		GeneratedOptions options = new GeneratedOptions();
+		Logger log = LogManager.getLogger(AnnotationHandler.class);
+		log.entry(options, args);
+		log.info("Parse the given args");
+		log.info("Fill the given object with the parsed values");
+		annotationHandler.fillOptions(options, args);
+		return options;
+	}
+
+	@Benchmark
+	public Object fillDiagnosticsEnabled() throws DuplicateOptionException, NoArgumentAllowedException, IllegalAccessException {
+		GeneratedOptions options = new GeneratedOptions();
+		annotationHandler.fillOptions(options, args);
+		return options;
+	}
+
+	@Benchmark
+	@Fork(value = 1, jvmArgsAppend = "-D" + Diagnostics.PROPERTY + "=false")
+	public Object fillDiagnosticsDisabled() throws DuplicateOptionException, NoArgumentAllowedException, IllegalAccessException {
+		GeneratedOptions options = new GeneratedOptions();
+		annotationHandler.fillOptions(options, args);
+		return options;
+	}
+}
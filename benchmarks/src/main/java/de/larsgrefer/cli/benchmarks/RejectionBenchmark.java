@@ -0,0 +1,120 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.larsgrefer.cli.benchmarks;
+
+import de.larsgrefer.cli.ParseResult;
+import de.larsgrefer.cli.ParserSpec;
+import de.larsgrefer.cli.exceptions.DuplicateOptionException;
+import de.larsgrefer.cli.exceptions.NoArgumentAllowedException;
+import de.larsgrefer.cli.model.CommandLineOption;
+import de.larsgrefer.cli.model.SimpleArgumentedOption;
+import de.larsgrefer.cli.model.SimpleOption;
+import de.larsgrefer.cli.parser.IntParser;
+import de.larsgrefer.cli.parser.StringParser;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares rejecting invalid command lines with accepting valid ones.
+ * <p>
+ * The strict benchmarks catch the exception thrown by {@link ParserSpec#parse(java.lang.String[])}, the collecting
+ * ones use {@link ParserSpec#parseCollectingErrors(java.lang.String[])}.
+ *
+ * @author Lars Grefer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejectionBenchmark {
+
+	private ParserSpec parserSpec;
+	private String[] valid;
+	private String[] unexpectedArgument;
+	private String[] invalidNumber;
+
+	@Setup
+	public void setup() throws DuplicateOptionException {
+		List<CommandLineOption> options = Arrays.asList(
+				new SimpleOption('v', "verbose", false, ""),
+				new SimpleArgumentedOption<>('n', "number", false, "", new IntParser()),
+				new SimpleArgumentedOption<>('s', "string", false, "", new StringParser())
+		);
+		parserSpec = new ParserSpec(options);
+		valid = new String[]{"-v", "-n", "42", "--string", "foo"};
+		unexpectedArgument = new String[]{"-v", "oops", "-n", "42", "--string", "foo"};
+		invalidNumber = new String[]{"-v", "-n", "42x", "--string", "foo"};
+	}
+
+	@Benchmark
+	public Object acceptStrict() throws NoArgumentAllowedException {
+		return parserSpec.parse(valid);
+	}
+
+	@Benchmark
+	public Object acceptCollecting() {
+		return parserSpec.parseCollectingErrors(valid);
+	}
+
+	@Benchmark
+	public Object rejectUnexpectedArgumentStrict() {
+		try {
+			return parserSpec.parse(unexpectedArgument);
+		} catch (NoArgumentAllowedException ex) {
+			return ex;
+		}
+	}
+
+	@Benchmark
+	public ParseResult rejectUnexpectedArgumentCollecting() {
+		return parserSpec.parseCollectingErrors(unexpectedArgument);
+	}
+
+	@Benchmark
+	public Object rejectInvalidNumberStrict() throws NoArgumentAllowedException {
+		try {
+			return parserSpec.parse(invalidNumber);
+		} catch (NumberFormatException ex) {
+			return ex;
+		}
+	}
+
+	@Benchmark
+	public ParseResult rejectInvalidNumberCollecting() {
+		return parserSpec.parseCollectingErrors(invalidNumber);
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.larsgrefer.cli.benchmarks;
+
+import de.larsgrefer.cli.ParseResult;
+import de.larsgrefer.cli.ParserSpec;
+import de.larsgrefer.cli.ValueConversion;
+import de.larsgrefer.cli.exceptions.DuplicateOptionException;
+import de.larsgrefer.cli.exceptions.NoArgumentAllowedException;
+import de.larsgrefer.cli.model.CommandLineOption;
+import de.larsgrefer.cli.model.ListOption;
+import de.larsgrefer.cli.model.SimpleOption;
+import de.larsgrefer.cli.parser.UrlParser;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the conversion of a large list option with {@link ValueConversion#EAGER}, {@link ValueConversion#LAZY} and
+ * a parallel conversion.
+ * <p>
+ * {@link #parseLazy()} never reads the list, {@link #parseLazyAndRead()} reads it once. {@link #parseParallel()}
+ * converts every list in parallel, comparing it with {@link #parseEager()} shows from which number of values on the
+ * parallel conversion pays off.
+ *
+ * @author Lars Grefer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueConversionBenchmark {
+
+	@Param({"10", "100", "1000", "10000", "100000"})
+	public int values;
+
+	private ParserSpec eager;
+	private ParserSpec lazy;
+	private ParserSpec parallel;
+	private String[] args;
+
+	@Setup
+	public void setup() throws DuplicateOptionException {
+		eager = new ParserSpec(createOptions(), ValueConversion.EAGER);
+		lazy = new ParserSpec(createOptions(), ValueConversion.LAZY);
+		parallel = new ParserSpec(createOptions(), ValueConversion.EAGER.parallel(1));
+		args = new String[values + 2];
+		args[0] = "-v";
+		args[1] = "--urls";
+		for (int i = 0; i < values; i++) {
+			args[i + 2] = "http://example.com/" + i;
+		}
+	}
+
+	static List<CommandLineOption> createOptions() {
+		return Arrays.asList(
+				new SimpleOption('v', "verbose", false, ""),
+				new ListOption<>('u', "urls", false, "", new UrlParser())
+		);
+	}
+
+	@Benchmark
+	public ParseResult parseEager() throws NoArgumentAllowedException {
+		return eager.parse(args);
+	}
+
+	@Benchmark
+	public ParseResult parseLazy() throws NoArgumentAllowedException {
+		return lazy.parse(args);
+	}
+
+	@Benchmark
+	public Object parseLazyAndRead() throws NoArgumentAllowedException {
+		return lazy.parse(args).getValue('u');
+	}
+
+	@Benchmark
+	public ParseResult parseParallel() throws NoArgumentAllowedException {
+		return parallel.parse(args);
+	}
+}
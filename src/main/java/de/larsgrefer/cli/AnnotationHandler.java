@@ -23,10 +23,18 @@
  */
 package de.larsgrefer.cli;
 
+import com.google.common.collect.ForwardingMap;
 import de.larsgrefer.cli.annotations.CliArgumentParser;
+import de.larsgrefer.cli.annotations.CliNested;
 import de.larsgrefer.cli.annotations.CliOption;
+import de.larsgrefer.cli.binding.FieldWriters;
+import de.larsgrefer.cli.collections.DoubleList;
+import de.larsgrefer.cli.collections.IntList;
+import de.larsgrefer.cli.collections.LongList;
 import de.larsgrefer.cli.exceptions.ArgumentParserRequiredException;
+import de.larsgrefer.cli.exceptions.ConstraintViolationException;
 import de.larsgrefer.cli.exceptions.DuplicateOptionException;
+import de.larsgrefer.cli.exceptions.InvalidArgumentException;
 import de.larsgrefer.cli.exceptions.NoArgumentAllowedException;
 import de.larsgrefer.cli.exceptions.ParserInstantiationException;
 import de.larsgrefer.cli.model.CommandLineOption;
@@ -36,22 +44,34 @@ import de.larsgrefer.cli.model.SimpleOption;
 import de.larsgrefer.cli.parser.ArgumentParser;
 import de.larsgrefer.cli.parser.ByteParser;
 import de.larsgrefer.cli.parser.CharParser;
+import de.larsgrefer.cli.parser.DoubleParser;
 import de.larsgrefer.cli.parser.FileParser;
 import de.larsgrefer.cli.parser.IntParser;
 import de.larsgrefer.cli.parser.LongParser;
+import de.larsgrefer.cli.parser.ParserDiscovery;
+import de.larsgrefer.cli.parser.ParserRegistry;
+import de.larsgrefer.cli.parser.ParserResolver;
 import de.larsgrefer.cli.parser.ShortParser;
 import de.larsgrefer.cli.parser.StringParser;
 import de.larsgrefer.cli.parser.UrlParser;
+import de.larsgrefer.cli.source.ArgumentSource;
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -64,57 +84,291 @@ import org.apache.logging.log4j.Logger;
  */
 public class AnnotationHandler {
 
-	private Map<Type, ArgumentParser<?>> parserDatabase;
-	private Logger log;
+	private static final Logger log = LogManager.getLogger(AnnotationHandler.class);
+
+	private static final ClassValue<List<Field>> ANNOTATED_FIELDS = new ClassValue<List<Field>>() {
+		@Override
+		protected List<Field> computeValue(Class<?> type) {
+			List<Field> fields = new ArrayList<>();
+			if (type.getSuperclass() != null) {
+				fields.addAll(get(type.getSuperclass()));
+			}
+			getDeclaredAnnotatedFields(type).forEach(fields::add);
+			return Collections.unmodifiableList(fields);
+		}
+	};
+
+	/**
+	 * The classes whose schemas are compiled by the current thread, to detect cyclic {@link CliNested} references
+	 */
+	private static final ThreadLocal<Set<Class<?>>> COMPILING = ThreadLocal.withInitial(HashSet::new);
+
+	private volatile Map<Type, ArgumentParser<?>> parserDatabase;
+	private final Map<Type, ArgumentParser<?>> parserDatabaseView = new ParserDatabaseView();
+	private volatile ParserResolver parserResolver;
+	private ParserRegistry parserRegistry = ParserRegistry.getDefault();
+	/**
+	 * From this number of objects on, {@link #getOptions(java.util.Collection)} creates the options in parallel.
+	 * <p>
+	 * The schemas are cached, so creating the options of one object only allocates them, which is cheap compared to
+	 * starting a parallel stream. The default is an estimate which has not been calibrated on a multi-core machine, the
+	 * {@code DiscoveryBenchmark} compares both variants to choose a threshold for a given machine.
+	 */
+	public static final int DEFAULT_PARALLEL_DISCOVERY_THRESHOLD = 1024;
+
+	private volatile ClassValue<OptionSchema> schemas = newSchemaCache();
+	private volatile ConcurrentMap<List<Class<?>>, CompositeSchema> compositeSchemas = new ConcurrentHashMap<>();
+	private int parallelDiscoveryThreshold = DEFAULT_PARALLEL_DISCOVERY_THRESHOLD;
 
 	public AnnotationHandler() {
 		this(getDefaultParserDatabase());
 	}
 
+	/**
+	 * @param parserDatabase the parsers of the types, copied into the parser database of this handler. Later changes of
+	 * the given map are not seen by this handler, use {@link #getParserDatabase()} to change its parsers.
+	 */
 	public AnnotationHandler(Map<Type, ArgumentParser<?>> parserDatabase) {
-		log = LogManager.getLogger(AnnotationHandler.class);
-		this.parserDatabase = parserDatabase;
+		this.parserDatabase = new HashMap<>(parserDatabase);
+		this.parserResolver = new ParserResolver(this.parserDatabase);
 	}
 
 	//<editor-fold defaultstate="collapsed" desc="Getter and Setter">
+	/**
+	 * Returns the parser database of this handler.
+	 * <p>
+	 * Parsers added or removed through the returned map are seen by all following fills, the resolved parsers and
+	 * schemas are invalidated on every change. Its key, value and entry views are read-only.
+	 *
+	 * @return a live view of the parser database
+	 */
 	public Map<Type, ArgumentParser<?>> getParserDatabase() {
-		return parserDatabase;
+		return parserDatabaseView;
 	}
 
+	/**
+	 * Replaces the parser database of this handler by a copy of the given map. Like with
+	 * {@link #AnnotationHandler(java.util.Map)}, later changes of the given map are not seen by this handler.
+	 *
+	 * @param parserDatabase the parsers of the types
+	 */
 	public void setParserDatabase(Map<Type, ArgumentParser<?>> parserDatabase) {
-		this.parserDatabase = parserDatabase;
+		this.parserDatabase = new HashMap<>(parserDatabase);
+		resetSchemaCaches();
+	}
+
+	public ParserRegistry getParserRegistry() {
+		return parserRegistry;
+	}
+
+	public void setParserRegistry(ParserRegistry parserRegistry) {
+		this.parserRegistry = parserRegistry;
+		resetSchemaCaches();
+	}
+
+	public int getParallelDiscoveryThreshold() {
+		return parallelDiscoveryThreshold;
+	}
+
+	public void setParallelDiscoveryThreshold(int parallelDiscoveryThreshold) {
+		this.parallelDiscoveryThreshold = parallelDiscoveryThreshold;
 	}
 
 	//</editor-fold>
+	/**
+	 * Fills the given object with the given arguments.
+	 *
+	 * @param <T> the type of the object
+	 * @param object the object with {@link CliOption} annotated fields
+	 * @param args the command line arguments
+	 * @throws DuplicateOptionException if two fields declare the same option name
+	 * @throws NoArgumentAllowedException if arguments are given for an option which does not take any
+	 * @throws ConstraintViolationException if a required option is missing
+	 */
 	public <T> void fillOptions(T object, String[] args) throws DuplicateOptionException, NoArgumentAllowedException, IllegalArgumentException, IllegalAccessException {
-		log.entry(object, args);
+		OptionSchema schema = getSchema(object.getClass());
+		ParseResult result = schema.getParserSpec().parse(args);
+		schema.getConstraints().check(result);
+
+		if (Diagnostics.ENABLED && log.isDebugEnabled()) {
+			log.debug("Filling {} with {}", object.getClass().getName(), result);
+		}
+		schema.bind(object, result);
+	}
 
-		log.info("Generating Options from Annotations");
-		List<CommandLineOption> opts = getOptions(object).collect(Collectors.toList());
+	/**
+	 * Fills the given object with the given arguments, unless some of them are invalid.
+	 * <p>
+	 * All invalid arguments and missing required options are collected instead of throwing at the first one, see
+	 * {@link ParserSpec#parseCollectingErrors(java.lang.String[])}. The object is only filled if there are none.
+	 *
+	 * @param <T> the type of the object
+	 * @param object the object with {@link CliOption} annotated fields
+	 * @param args the command line arguments
+	 * @return the invalid arguments, empty if the object was filled
+	 * @throws DuplicateOptionException if two fields declare the same option name
+	 */
+	public <T> List<InvalidArgumentException> fillOptionsCollectingErrors(T object, String[] args) throws DuplicateOptionException {
+		OptionSchema schema = getSchema(object.getClass());
+		ParseResult result = schema.getParserSpec().parseCollectingErrors(args);
+		schema.getConstraints().collect(result);
+
+		if (Diagnostics.ENABLED && log.isDebugEnabled()) {
+			log.debug("Filling {} with {}", object.getClass().getName(), result);
+		}
+		if (!result.hasErrors()) {
+			schema.bind(object, result);
+		}
+		return result.getErrors();
+	}
 
-		log.info("Fill the gernerated options with the given args");
-		ArgsHandler<List<CommandLineOption>> argsHandler = new ArgsHandler<>(opts);
-		argsHandler.fillOptionWithArgs(args);
+	/**
+	 * Fills the given object with the arguments of the given source.
+	 *
+	 * @param <T> the type of the object
+	 * @param object the object with {@link CliOption} annotated fields
+	 * @param source the command line arguments, see {@link de.larsgrefer.cli.source.ArgumentSources}
+	 * @throws DuplicateOptionException if two fields declare the same option name
+	 * @throws NoArgumentAllowedException if arguments are given for an option which does not take any
+	 * @throws ConstraintViolationException if a required option is missing
+	 * @throws IOException if the source can not be read
+	 */
+	public <T> void fillOptions(T object, ArgumentSource source) throws DuplicateOptionException, NoArgumentAllowedException, IOException {
+		OptionSchema schema = getSchema(object.getClass());
+		ParseResult result = schema.getParserSpec().parse(source);
+		schema.getConstraints().check(result);
+
+		if (Diagnostics.ENABLED && log.isDebugEnabled()) {
+			log.debug("Filling {} with {}", object.getClass().getName(), result);
+		}
+		schema.bind(object, result);
+	}
 
-		log.info("Fill the given object with the values of the filled Options");
-		fillObject(object, argsHandler);
+	/**
+	 * Returns the compiled option schema of the given class.
+	 * <p>
+	 * The schema is only built on the first call for each class and cached afterwards.
+	 *
+	 * @param clazz the annotated class
+	 * @return the schema of the class
+	 */
+	public OptionSchema getSchema(Class<?> clazz) {
+		return schemas.get(clazz);
 	}
 
-	private <T> void fillObject(T obj, ArgsHandler<List<CommandLineOption>> argsHandler) throws IllegalAccessException, SecurityException, IllegalArgumentException {
-		List<Field> fields = getAnnotatedFields(obj).collect(Collectors.toList());
-		for (Field field : fields) {
-			OptionName on = getOptionName(field);
-			CommandLineOption option;
-			if (on.name != CliOption.DEFAULT_NAME) {
-				option = argsHandler.getOptionByName(on.name);
+	/**
+	 * Returns the combined schema of the given classes.
+	 * <p>
+	 * The schema is only built on the first call for each combination of classes and cached afterwards.
+	 *
+	 * @param classes the annotated classes
+	 * @return the combined schema of the classes, in the given order
+	 * @throws DuplicateOptionException if two fields of the classes declare the same option name
+	 */
+	public CompositeSchema getCompositeSchema(List<Class<?>> classes) throws DuplicateOptionException {
+		ConcurrentMap<List<Class<?>>, CompositeSchema> cache = compositeSchemas;
+		CompositeSchema composite = cache.get(classes);
+		if (composite == null) {
+			List<OptionSchema> classSchemas = new ArrayList<>(classes.size());
+			for (Class<?> clazz : classes) {
+				classSchemas.add(getSchema(clazz));
+			}
+			composite = new CompositeSchema(classSchemas);
+			CompositeSchema existing = cache.putIfAbsent(new ArrayList<>(classes), composite);
+			if (existing != null) {
+				composite = existing;
+			}
+		}
+		return composite;
+	}
+
+	/**
+	 * Fills all given objects from one command line.
+	 * <p>
+	 * The options of all objects are looked up in one combined table, see
+	 * {@link #getCompositeSchema(java.util.List)}, so every option name may only be declared once among them.
+	 *
+	 * @param objects the objects with {@link CliOption} annotated fields
+	 * @param args the command line arguments
+	 * @throws DuplicateOptionException if two fields of the objects declare the same option name
+	 * @throws NoArgumentAllowedException if arguments are given for an option which does not take any
+	 * @throws ConstraintViolationException if a required option of one of the objects is missing
+	 */
+	public void fillAllOptions(List<?> objects, String[] args) throws DuplicateOptionException, NoArgumentAllowedException {
+		List<Class<?>> classes = new ArrayList<>(objects.size());
+		for (Object object : objects) {
+			classes.add(object.getClass());
+		}
+		CompositeSchema composite = getCompositeSchema(classes);
+		ParseResult result = composite.getParserSpec().parse(args);
+		composite.getConstraints().check(result);
+
+		if (Diagnostics.ENABLED && log.isDebugEnabled()) {
+			log.debug("Filling {} objects with {}", objects.size(), result);
+		}
+		composite.bind(objects, result);
+	}
+
+	private void resetSchemaCaches() {
+		this.schemas = newSchemaCache();
+		this.compositeSchemas = new ConcurrentHashMap<>();
+		this.parserResolver = new ParserResolver(parserDatabase);
+	}
+
+	private ClassValue<OptionSchema> newSchemaCache() {
+		return new ClassValue<OptionSchema>() {
+			@Override
+			protected OptionSchema computeValue(Class<?> type) {
+				return compileSchema(type);
+			}
+		};
+	}
+
+	/**
+	 * Compiles the schema of the given class.
+	 * <p>
+	 * The bindings of the superclass come first, followed by the {@link CliOption} fields declared by the class and the
+	 * options of its {@link CliNested} fields. The schemas of the superclass and the nested types are taken from the
+	 * cache, so every class of a hierarchy is only inspected once.
+	 */
+	OptionSchema compileSchema(Class<?> clazz) {
+		Set<Class<?>> compiling = COMPILING.get();
+		if (!compiling.add(clazz)) {
+			throw new IllegalArgumentException("Cyclic @CliNested reference to " + clazz.getName());
+		}
+		try {
+			List<OptionSchema.OptionBinding> bindings = new ArrayList<>();
+
+			Class<?> superclass = clazz.getSuperclass();
+			if (superclass != null && superclass != Object.class) {
+				bindings.addAll(getSchema(superclass).getBindings());
+			}
+
+			OptionsBinder<?> binder = findBinder(clazz);
+			if (binder != null) {
+				if (Diagnostics.ENABLED && log.isDebugEnabled()) {
+					log.debug("Using generated {} for {}", binder.getClass().getName(), clazz.getName());
+				}
+				bindings.addAll(binder.createSchema(this).getBindings());
 			} else {
-				option = argsHandler.getOptionByLongName(on.longName);
+				if (Diagnostics.ENABLED && log.isDebugEnabled()) {
+					log.debug("Compiling option schema of {}", clazz.getName());
+				}
+				getDeclaredAnnotatedFields(clazz)
+						.map(this::compileBinding)
+						.forEach(bindings::add);
 			}
-			Object value = option.getValue();
-			if (value != null) {
-				field.setAccessible(true);
-				field.set(obj, value);
+
+			for (Field field : clazz.getDeclaredFields()) {
+				if (field.isAnnotationPresent(CliNested.class)) {
+					for (OptionSchema.OptionBinding binding : getSchema(field.getType()).getBindings()) {
+						bindings.add(binding.nestedIn(field));
+					}
+				}
 			}
+			return new OptionSchema(clazz, bindings);
+		} finally {
+			compiling.remove(clazz);
 		}
 	}
 
@@ -127,16 +381,28 @@ public class AnnotationHandler {
 	};
 
 	public static Stream<Field> getAnnotatedFields(Object obj) {
-		Class<?> clazz = obj.getClass();
+		return getAnnotatedFields(obj.getClass());
+	}
 
-		Field[] declaredFields = clazz.getDeclaredFields();
+	/**
+	 * Returns the {@link CliOption} annotated fields of the given class and its superclasses.
+	 * <p>
+	 * The fields of the superclasses come first. The list is computed once per class.
+	 *
+	 * @param clazz the annotated class
+	 * @return the annotated fields
+	 */
+	public static Stream<Field> getAnnotatedFields(Class<?> clazz) {
+		return ANNOTATED_FIELDS.get(clazz).stream();
+	}
 
-		return Arrays.stream(declaredFields)
+	private static Stream<Field> getDeclaredAnnotatedFields(Class<?> clazz) {
+		return Arrays.stream(clazz.getDeclaredFields())
 				.filter(field -> field.isAnnotationPresent(CliOption.class));
 	}
 
 	public Stream<CommandLineOption> getOptions(Object obj) {
-		return getAnnotatedFields(obj).map(annotatedFieldToOption);
+		return getSchema(obj.getClass()).createOptions().stream();
 	}
 
 	public Stream<CommandLineOption> getOptions(Object obj, Object obj2) {
@@ -144,20 +410,84 @@ public class AnnotationHandler {
 	}
 
 	public Stream<CommandLineOption> getOptions(Object... objects) {
-		return Arrays.stream(objects)
-				.parallel()
-				.flatMap(getOptions);
+		return getOptions(Arrays.asList(objects));
 	}
 
+	/**
+	 * Creates the options of all given objects.
+	 * <p>
+	 * The options are created in parallel if there are at least {@link #getParallelDiscoveryThreshold()} objects.
+	 *
+	 * @param objects the objects with {@link CliOption} annotated fields
+	 * @return the options of all objects, in the order of the objects
+	 */
 	public Stream<CommandLineOption> getOptions(Collection<? extends Object> objects) {
-		return objects
-				.parallelStream()
-				.flatMap(getOptions);
+		Stream<? extends Object> stream = objects.size() >= parallelDiscoveryThreshold
+				? objects.parallelStream()
+				: objects.stream();
+		return stream.flatMap(getOptions);
 	}
 
 	Function<Field, ? extends CommandLineOption> annotatedFieldToOption = field -> annotatedFieldToOption(field);
 
+	/**
+	 * Looks up the {@link OptionsBinder} generated by the
+	 * {@link de.larsgrefer.cli.processor.OptionsBinderProcessor} for the given class
+	 *
+	 * @param clazz the annotated class
+	 * @return the binder, or null if none was generated
+	 */
+	OptionsBinder<?> findBinder(Class<?> clazz) {
+		ClassLoader classLoader = clazz.getClassLoader();
+		if (classLoader == null) {
+			return null;
+		}
+		String binderName = OptionsBinder.binderName(clazz.getName());
+		try {
+			Class<?> binderClass = Class.forName(binderName, true, classLoader);
+			if (!OptionsBinder.class.isAssignableFrom(binderClass)) {
+				return null;
+			}
+			return (OptionsBinder<?>) binderClass.getDeclaredConstructor().newInstance();
+		} catch (ClassNotFoundException ex) {
+			return null;
+		} catch (ReflectiveOperationException ex) {
+			log.warn("Could not instantiate generated binder {}", binderName, ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the parser registered for the given type.
+	 * <p>
+	 * Used by generated {@link OptionsBinder}s.
+	 *
+	 * @param <A>
+	 * @param type the type of the values
+	 * @param fieldName the name of the field, used in the error message
+	 * @return the parser
+	 * @throws ArgumentParserRequiredException if no parser is registered for the given type
+	 */
+	public <A> ArgumentParser<A> requireParser(Class<A> type, String fieldName) {
+		ArgumentParser<A> parser = classToParser(type);
+		if (parser == null) {
+			throw log.throwing(
+					new ArgumentParserRequiredException(
+							"Cannot automaticly parse Values of Type "
+							+ type.getTypeName()
+							+ " at Field "
+							+ fieldName
+					)
+			);
+		}
+		return parser;
+	}
+
 	CommandLineOption annotatedFieldToOption(Field field) {
+		return compileBinding(field).createOption();
+	}
+
+	OptionSchema.OptionBinding compileBinding(Field field) {
 		OptionName optionName = getOptionName(field);
 
 		boolean required = field.getAnnotation(CliOption.class).required();
@@ -168,54 +498,110 @@ public class AnnotationHandler {
 
 		ArgumentParser<?> parser = null;
 		if (field.isAnnotationPresent(CliArgumentParser.class)) {
-			log.debug("Found CliArgumentParser annotation at field {}", field.getName());
-			try {
-				parser = field.getAnnotation(CliArgumentParser.class).value().newInstance();
-			} catch (InstantiationException | IllegalAccessException ex) {
-				log.error("Could not obtain a new instance of Parser class {}", field.getAnnotation(CliArgumentParser.class).value().getName());
-				throw log.throwing(new ParserInstantiationException(ex));
+			if (Diagnostics.ENABLED && log.isDebugEnabled()) {
+				log.debug("Found CliArgumentParser annotation at field {}", field.getName());
 			}
+			parser = getAnnotatedParser(field);
 		}
 
 		if (parser == null && (fieldType.equals(boolean.class) || fieldType.equals(Boolean.class))) {
-			return log.exit(new SimpleOption(optionName.name, optionName.longName, required, description));
+			return new OptionSchema.OptionBinding(field.getName(), optionName.name, optionName.longName, required, description, OptionSchema.OptionBinding.Kind.FLAG, null, FieldWriters.forField(field));
 		}
 
-		if (List.class.isAssignableFrom(fieldType)) {
-			ParameterizedType type = (ParameterizedType) field.getGenericType();
-			Type[] actualTypeArguments = type.getActualTypeArguments();
-			if (parser != null) {
-				return new ListOption(optionName.name, optionName.longName, required, description, parser);
+		OptionSchema.OptionBinding.Kind primitiveListKind = getPrimitiveListKind(fieldType);
+		if (primitiveListKind != null) {
+			if (parser == null) {
+				parser = getParser(field, getPrimitiveListElementType(fieldType));
 			}
-			parser = getParserDatabase().get(actualTypeArguments[0]);
-			if (parser != null) {
-				return log.exit(new ListOption(optionName.name, optionName.longName, required, description, parser));
-			} else {
-				log.error("Cannot automaticly parse Values of Type {} at Field {}", actualTypeArguments[0].getTypeName(), field.getName());
-				throw log.throwing(new ArgumentParserRequiredException());
+			return new OptionSchema.OptionBinding(field.getName(), optionName.name, optionName.longName, required, description, primitiveListKind, parser, FieldWriters.forField(field));
+		}
+
+		if (List.class.isAssignableFrom(fieldType)) {
+			if (parser == null) {
+				ParameterizedType type = (ParameterizedType) field.getGenericType();
+				Type[] actualTypeArguments = type.getActualTypeArguments();
+				parser = typeToParser.apply(actualTypeArguments[0]);
+				if (parser == null) {
+					log.error("Cannot automaticly parse Values of Type {} at Field {}", actualTypeArguments[0].getTypeName(), field.getName());
+					throw log.throwing(new ArgumentParserRequiredException());
+				}
 			}
+			return new OptionSchema.OptionBinding(field.getName(), optionName.name, optionName.longName, required, description, OptionSchema.OptionBinding.Kind.LIST, parser, FieldWriters.forField(field));
+		}
+
+		if (parser == null) {
+			parser = getParser(field);
+		}
+		return new OptionSchema.OptionBinding(field.getName(), optionName.name, optionName.longName, required, description, OptionSchema.OptionBinding.Kind.VALUE, parser, FieldWriters.forField(field));
+	}
+
+	static OptionSchema.OptionBinding.Kind getPrimitiveListKind(Class<?> fieldType) {
+		if (fieldType == int[].class) {
+			return OptionSchema.OptionBinding.Kind.INT_ARRAY;
+		} else if (fieldType == IntList.class) {
+			return OptionSchema.OptionBinding.Kind.INT_LIST;
+		} else if (fieldType == long[].class) {
+			return OptionSchema.OptionBinding.Kind.LONG_ARRAY;
+		} else if (fieldType == LongList.class) {
+			return OptionSchema.OptionBinding.Kind.LONG_LIST;
+		} else if (fieldType == double[].class) {
+			return OptionSchema.OptionBinding.Kind.DOUBLE_ARRAY;
+		} else if (fieldType == DoubleList.class) {
+			return OptionSchema.OptionBinding.Kind.DOUBLE_LIST;
+		}
+		return null;
+	}
+
+	static Class<?> getPrimitiveListElementType(Class<?> fieldType) {
+		if (fieldType == int[].class || fieldType == IntList.class) {
+			return int.class;
+		} else if (fieldType == long[].class || fieldType == LongList.class) {
+			return long.class;
+		}
+		return double.class;
+	}
+
+	ArgumentParser<?> getParser(Field field, Class<?> valueType) {
+		ArgumentParser<?> parser = classToParser(valueType);
+		if (parser == null) {
+			throw log.throwing(
+					new ArgumentParserRequiredException(
+							"Cannot automaticly parse Values of Type "
+							+ valueType.getTypeName()
+							+ " at Field "
+							+ field.getName()
+					)
+			);
 		}
+		return parser;
+	}
 
-		return log.exit(new SimpleArgumentedOption(optionName.name, optionName.longName, required, description, getParser(field)));
+	/**
+	 * @param field a field annotated with {@link CliArgumentParser}
+	 * @return the parser declared by the annotation, taken from the {@link #getParserRegistry() parser registry}
+	 */
+	ArgumentParser<?> getAnnotatedParser(Field field) {
+		CliArgumentParser annotation = field.getAnnotation(CliArgumentParser.class);
+		try {
+			return parserRegistry.getParser(annotation.value(), annotation.shared());
+		} catch (ParserInstantiationException ex) {
+			log.error("Could not obtain an instance of Parser class {}", annotation.value().getName());
+			throw log.throwing(ex);
+		}
 	}
 
 	ArgumentParser<?> getParser(Field field) {
 
 		if (field.isAnnotationPresent(CliArgumentParser.class)) {
-
-			try {
-				return log.exit(field.getAnnotation(CliArgumentParser.class).value().newInstance());
-			} catch (InstantiationException | IllegalAccessException ex) {
-				throw log.throwing(new ParserInstantiationException(ex));
-			}
+			return getAnnotatedParser(field);
 		}
 
-		Class<?> fieldType = field.getType();
+		Type fieldType = field.getGenericType();
 
-		ArgumentParser<?> parser = classToParser(fieldType);
+		ArgumentParser<?> parser = typeToParser.apply(fieldType);
 
 		if (parser != null) {
-			return log.exit(parser);
+			return parser;
 		}
 
 		throw log.throwing(
@@ -247,6 +633,10 @@ public class AnnotationHandler {
 		String longName;
 	}
 
+	/**
+	 * @return a new map of the built-in parsers and the parsers found by {@link ParserDiscovery}, which replace
+	 * built-in parsers for the same type
+	 */
 	static Map<Type, ArgumentParser<?>> getDefaultParserDatabase() {
 		Map<Type, ArgumentParser<?>> databaseMap = new HashMap<>();
 
@@ -272,9 +662,15 @@ public class AnnotationHandler {
 		databaseMap.put(Long.class, longParser);
 		databaseMap.put(long.class, longParser);
 
+		DoubleParser doubleParser = new DoubleParser();
+		databaseMap.put(Double.class, doubleParser);
+		databaseMap.put(double.class, doubleParser);
+
 		databaseMap.put(File.class, new FileParser());
 		databaseMap.put(URL.class, new UrlParser());
 
+		databaseMap.putAll(ParserDiscovery.getDiscoveredParsers());
+
 		return databaseMap;
 	}
 
@@ -282,9 +678,65 @@ public class AnnotationHandler {
 		getParserDatabase().put(type, parser);
 	}
 
-	public Function<Type, ArgumentParser<?>> typeToParser = type -> getParserDatabase().get(type);
+	/**
+	 * Resolves the parser of a type with a {@link ParserResolver} on the {@link #getParserDatabase() parser database}.
+	 * The resolved parsers are cached until the database is replaced or changed.
+	 */
+	public Function<Type, ArgumentParser<?>> typeToParser = type -> parserResolver.resolve(type);
 
 	public <A> ArgumentParser<A> classToParser(Class<A> clazz) {
 		return (ArgumentParser<A>) typeToParser.apply(clazz);
 	}
+
+	/**
+	 * Forwards to the current parser database and resets the caches derived from it on every change
+	 */
+	private final class ParserDatabaseView extends ForwardingMap<Type, ArgumentParser<?>> {
+
+		@Override
+		protected Map<Type, ArgumentParser<?>> delegate() {
+			return parserDatabase;
+		}
+
+		@Override
+		public ArgumentParser<?> put(Type key, ArgumentParser<?> value) {
+			ArgumentParser<?> previous = delegate().put(key, value);
+			resetSchemaCaches();
+			return previous;
+		}
+
+		@Override
+		public void putAll(Map<? extends Type, ? extends ArgumentParser<?>> map) {
+			delegate().putAll(map);
+			resetSchemaCaches();
+		}
+
+		@Override
+		public ArgumentParser<?> remove(Object key) {
+			ArgumentParser<?> previous = delegate().remove(key);
+			resetSchemaCaches();
+			return previous;
+		}
+
+		@Override
+		public void clear() {
+			delegate().clear();
+			resetSchemaCaches();
+		}
+
+		@Override
+		public Set<Type> keySet() {
+			return Collections.unmodifiableMap(delegate()).keySet();
+		}
+
+		@Override
+		public Collection<ArgumentParser<?>> values() {
+			return Collections.unmodifiableMap(delegate()).values();
+		}
+
+		@Override
+		public Set<Map.Entry<Type, ArgumentParser<?>>> entrySet() {
+			return Collections.unmodifiableMap(delegate()).entrySet();
+		}
+	}
 }
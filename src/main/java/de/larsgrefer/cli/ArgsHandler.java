@@ -23,17 +23,28 @@
  */
 package de.larsgrefer.cli;
 
+import de.larsgrefer.cli.exceptions.ConstraintViolationException;
 import de.larsgrefer.cli.exceptions.DuplicateOptionException;
+import de.larsgrefer.cli.exceptions.InvalidArgumentException;
 import de.larsgrefer.cli.exceptions.NoArgumentAllowedException;
-import de.larsgrefer.cli.model.ArgumentedOption;
 import de.larsgrefer.cli.model.CommandLineOption;
+import de.larsgrefer.cli.source.ArgumentSource;
+import de.larsgrefer.cli.source.ArgumentSources;
+import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 /**
+ * Fills a collection of options with the command line arguments.
+ * <p>
+ * The parsing is done by a {@link ParserSpec}, the results are copied into the options afterwards. Use
+ * {@link #getParserSpec()} directly to parse concurrently without modifying the options.
+ * <p>
+ * Before the options are filled, the declared options are checked against the required options and the
+ * {@link OptionConstraints} given to the constructor.
  *
  * @author lgrefer
  * @param <T>
@@ -41,98 +52,153 @@ import java.util.stream.IntStream;
 public class ArgsHandler<T extends Collection<? extends CommandLineOption>> {
 
 	private T options;
+	private final ParserSpec parserSpec;
+	private final ConstraintChecker constraints;
 	private final Map<Character, CommandLineOption> optionsByName;
 	private final Map<String, CommandLineOption> optionsByLongName;
 
 	public ArgsHandler(T options) throws DuplicateOptionException {
-		optionsByName = new TreeMap<>();
-		optionsByLongName = new TreeMap<>();
+		this(options, ValueConversion.EAGER);
+	}
+
+	/**
+	 * @param options the options to fill
+	 * @param conversion when the values of the options are converted, with {@link ValueConversion#LAZY} on the first
+	 * {@link CommandLineOption#getValue()}
+	 * @throws DuplicateOptionException if two options have the same name or long name
+	 */
+	public ArgsHandler(T options, ValueConversion conversion) throws DuplicateOptionException {
+		this(options, conversion, new OptionConstraints());
+	}
 
+	/**
+	 * @param options the options to fill
+	 * @param conversion when the values of the options are converted
+	 * @param constraints the constraints between the options, in addition to the required options
+	 * @throws DuplicateOptionException if two options have the same name or long name
+	 * @throws IllegalArgumentException if a constraint refers to an option which is not one of the given options
+	 */
+	public ArgsHandler(T options, ValueConversion conversion, OptionConstraints constraints) throws DuplicateOptionException {
+		this.options = options;
+		this.parserSpec = new ParserSpec(options, conversion);
+		this.constraints = constraints.compile(parserSpec);
+
+		Map<Character, CommandLineOption> byName = new TreeMap<>();
+		Map<String, CommandLineOption> byLongName = new TreeMap<>();
 		for (CommandLineOption opt : options) {
-			if (optionsByName.containsKey(opt.getName())) {
-				throwNewDuplicateByNameException(opt);
+			if (opt.hasName()) {
+				byName.put(opt.getName(), opt);
 			}
-			optionsByName.put(opt.getName(), opt);
-
-			if (optionsByLongName.containsKey(opt.getLongName())) {
-				throwNewDuplicateByLongNameException(opt);
+			if (opt.hasLongName()) {
+				byLongName.put(opt.getLongName(), opt);
 			}
-			optionsByLongName.put(opt.getLongName(), opt);
 		}
+		optionsByName = Collections.unmodifiableMap(byName);
+		optionsByLongName = Collections.unmodifiableMap(byLongName);
 	}
 
-	private String[] args;
-
-	public synchronized T fillOptionWithArgs(String[] args) throws NoArgumentAllowedException {
-		this.args = args;
-
-		int[] optionStarts
-				= IntStream.concat(
-						IntStream
-						.range(0, args.length)
-						.filter(i -> args[i].startsWith("-")),
-						IntStream.of(args.length))
-				.toArray();
-
-		for (int i = 0; i < optionStarts.length - 1; i++) {
-			int a = optionStarts[i];
-			int b = optionStarts[i + 1];
-			if (args[a].startsWith("--")) {
-				fillLongNamedOption(a, b);
-			} else {
-				fillShortNamedOption(a, b);
-			}
+	/**
+	 * Fills the options with the given arguments.
+	 * <p>
+	 * Options which are declared in the arguments are marked as set, the values of argumented options are replaced by
+	 * the parsed arguments.
+	 *
+	 * @param args the command line arguments
+	 * @return the filled options
+	 * @throws NoArgumentAllowedException if arguments are given for an option which does not take any
+	 * @throws ConstraintViolationException if a required option is missing or another constraint is violated
+	 * @see ParserSpec#parse(java.lang.String[])
+	 */
+	public T fillOptionWithArgs(String[] args) throws NoArgumentAllowedException {
+		ParseResult result = parserSpec.parse(args);
+		constraints.check(result);
+		synchronized (this) {
+			result.applyToOptions();
 		}
-
 		return getOptions();
-
 	}
 
-	private void throwNewDuplicateByNameException(CommandLineOption opt) throws DuplicateOptionException {
-		String dop = getOptions().stream()
-				.filter(option -> option.getName() == opt.getName())
-				.map(option -> option.toString())
-				.collect(Collectors.joining("\n"));
-		throw new DuplicateOptionException("The following Options have duplicate Names:\n" + dop);
+	/**
+	 * Parses the given arguments and checks the constraints, without filling the options.
+	 * <p>
+	 * Unlike {@link #fillOptionWithArgs(java.lang.String[])} this only allocates the compact {@link ParseResult}, its
+	 * values are read by ordinal or with the {@link OptionKey}s of {@link ParserSpec#keyOf(CommandLineOption)}.
+	 *
+	 * @param args the command line arguments
+	 * @return the result of this parse
+	 * @throws NoArgumentAllowedException if arguments are given for an option which does not take any
+	 * @throws ConstraintViolationException if a required option is missing or another constraint is violated
+	 */
+	public ParseResult parse(String[] args) throws NoArgumentAllowedException {
+		ParseResult result = parserSpec.parse(args);
+		constraints.check(result);
+		return result;
 	}
 
-	private void throwNewDuplicateByLongNameException(CommandLineOption opt) throws DuplicateOptionException {
-		String dop = getOptions().stream()
-				.filter(option -> option.getLongName().equals(opt.getLongName()))
-				.map(option -> option.toString())
-				.collect(Collectors.joining("\n"));
-		throw new DuplicateOptionException("The following Options have duplicate LongNames:\n" + dop);
+	/**
+	 * Fills the options with the given arguments, unless some of them are invalid.
+	 * <p>
+	 * All invalid arguments and violated constraints are collected instead of throwing at the first one, see
+	 * {@link ParserSpec#parseCollectingErrors(java.lang.String[])}. The options are only filled if there are none.
+	 *
+	 * @param args the command line arguments
+	 * @return the invalid arguments, empty if the options were filled
+	 */
+	public List<InvalidArgumentException> fillOptionWithArgsCollectingErrors(String[] args) {
+		ParseResult result = parserSpec.parseCollectingErrors(args);
+		constraints.collect(result);
+		if (!result.hasErrors()) {
+			synchronized (this) {
+				result.applyToOptions();
+			}
+		}
+		return result.getErrors();
 	}
 
-	private void fillLongNamedOption(int argIndex, int nextArgIndex) throws NoArgumentAllowedException {
-		CommandLineOption option = getOptionsByLongName().get(args[argIndex].substring(2));
-		fillOption(option, argIndex, nextArgIndex);
+	/**
+	 * Fills the options with the arguments of the given source.
+	 * <p>
+	 * The arguments are parsed while they are read, so the source never has to be held in memory completely. Use
+	 * {@link de.larsgrefer.cli.source.ArgumentSources} to read the arguments from an iterator, a reader or an argument
+	 * file.
+	 *
+	 * @param source the command line arguments
+	 * @return the filled options
+	 * @throws NoArgumentAllowedException if arguments are given for an option which does not take any
+	 * @throws ConstraintViolationException if a required option is missing or another constraint is violated
+	 * @throws IOException if the source can not be read
+	 * @see ParserSpec#parse(de.larsgrefer.cli.source.ArgumentSource)
+	 */
+	public T fillOptionWithArgs(ArgumentSource source) throws NoArgumentAllowedException, IOException {
+		ParseResult result = parserSpec.parse(source);
+		constraints.check(result);
+		synchronized (this) {
+			result.applyToOptions();
+		}
+		return getOptions();
 	}
 
-	private void fillShortNamedOption(int argIndex, int nextArgIndex) throws NoArgumentAllowedException {
-		char[] optionChars = args[argIndex].substring(1).toCharArray();
-		for (int i = 0; i < optionChars.length - 1; i++) {
-			CommandLineOption option = getOptionsByName().get(optionChars[i]);
-			fillOption(option, argIndex, argIndex);
+	/**
+	 * Fills the options with the given arguments, expanding response files.
+	 * <p>
+	 * Every argument of the form {@code @path} is replaced by the arguments in the file at that path, see
+	 * {@link ArgumentSources#withArgFiles(de.larsgrefer.cli.source.ArgumentSource)}. The files are memory mapped and
+	 * parsed in place.
+	 *
+	 * @param args the command line arguments
+	 * @return the filled options
+	 * @throws NoArgumentAllowedException if arguments are given for an option which does not take any
+	 * @throws ConstraintViolationException if a required option is missing or another constraint is violated
+	 * @throws IOException if a response file can not be read
+	 */
+	public T fillOptionWithArgFiles(String[] args) throws NoArgumentAllowedException, IOException {
+		try (ArgumentSource source = ArgumentSources.withArgFiles(ArgumentSources.of(args))) {
+			return fillOptionWithArgs(source);
 		}
-		CommandLineOption option = getOptionsByName().get(optionChars[optionChars.length - 1]);
-		fillOption(option, argIndex, nextArgIndex);
 	}
 
-	private void fillOption(CommandLineOption option, int argIndex, int nextArgIndex) throws NoArgumentAllowedException {
-		if (option == null) {
-			return;
-		}
-		option.setSet(true);
-		if (argIndex + 1 < nextArgIndex) //we have arguments given
-		{
-			if (option instanceof ArgumentedOption) {
-				ArgumentedOption ao = (ArgumentedOption) option;
-				IntStream.range(argIndex + 1, nextArgIndex).forEach(i -> ao.addValue(args[i]));
-			} else {
-				throw new NoArgumentAllowedException("No arguments allowed for Option " + args[argIndex]);
-			}
-		}
+	public ParserSpec getParserSpec() {
+		return parserSpec;
 	}
 
 	public T getOptions() {
@@ -144,7 +210,7 @@ public class ArgsHandler<T extends Collection<? extends CommandLineOption>> {
 	}
 
 	public CommandLineOption getOptionByName(char name) {
-		return getOptionsByName().get(name);
+		return parserSpec.getTable().byName(name);
 	}
 
 	public Map<String, CommandLineOption> getOptionsByLongName() {
@@ -152,6 +218,6 @@ public class ArgsHandler<T extends Collection<? extends CommandLineOption>> {
 	}
 	
 	public CommandLineOption getOptionByLongName(String name) {
-		return getOptionsByLongName().get(name);
+		return parserSpec.getTable().byLongName(name, 0, name.length());
 	}
 }
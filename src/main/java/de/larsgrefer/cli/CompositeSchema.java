@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli;
+
+import de.larsgrefer.cli.exceptions.DuplicateOptionException;
+import de.larsgrefer.cli.model.CommandLineOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The combined option model of several annotated classes, which are filled from one command line.
+ * <p>
+ * The options of all schemas are merged into one {@link ParserSpec}, so the lookup tables are built once for the
+ * combination of classes instead of once per fill. The options of the n-th schema follow those of the schemas before
+ * it in the spec.
+ *
+ * @see AnnotationHandler#getCompositeSchema(java.util.List)
+ * @author Lars Grefer
+ */
+public final class CompositeSchema {
+
+	private final List<OptionSchema> schemas;
+	private final int[] firstOrdinals;
+	private final ParserSpec parserSpec;
+	private final ConstraintChecker constraints;
+
+	public CompositeSchema(List<OptionSchema> schemas) throws DuplicateOptionException {
+		this.schemas = Collections.unmodifiableList(new ArrayList<>(schemas));
+		this.firstOrdinals = new int[schemas.size()];
+
+		List<CommandLineOption> options = new ArrayList<>();
+		for (int i = 0; i < schemas.size(); i++) {
+			firstOrdinals[i] = options.size();
+			options.addAll(schemas.get(i).createOptions());
+		}
+		this.parserSpec = new ParserSpec(options);
+		this.constraints = new OptionConstraints().compile(parserSpec);
+	}
+
+	public List<OptionSchema> getSchemas() {
+		return schemas;
+	}
+
+	public ParserSpec getParserSpec() {
+		return parserSpec;
+	}
+
+	/**
+	 * @return the checker of the required options of all schemas
+	 */
+	ConstraintChecker getConstraints() {
+		return constraints;
+	}
+
+	/**
+	 * Writes the values of the given parse result into the fields of the target objects.
+	 *
+	 * @param targets the objects to fill, the n-th object belongs to the n-th schema
+	 * @param result the result of the {@link #getParserSpec() parser spec} of this schema
+	 */
+	public void bind(List<?> targets, ParseResult result) {
+		if (targets.size() != schemas.size()) {
+			throw new IllegalArgumentException("Expected " + schemas.size() + " targets, got " + targets.size());
+		}
+		for (int i = 0; i < schemas.size(); i++) {
+			schemas.get(i).bind(targets.get(i), result, firstOrdinals[i]);
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package de.larsgrefer.cli;
+
+import de.larsgrefer.cli.exceptions.ConstraintViolationException;
+import de.larsgrefer.cli.exceptions.InvalidArgumentException;
+
+/**
+ * The {@link OptionConstraints} of a {@link ParserSpec}, compiled into bitmasks over the option ordinals.
+ * <p>
+ * Every check combines the {@link ParseResult#getSetBits() declared options} of a result with one mask word by word,
+ * so checking a result costs a few AND operations per constraint.
+ *
+ * @author Lars Grefer
+ */
+final class ConstraintChecker {
+
+	private final ParserSpec spec;
+	private final long[] required;
+	private final long[][] exclusiveMasks;
+	private final int[] dependents;
+	private final long[][] dependencyMasks;
+	private final boolean hasRequired;
+
+	ConstraintChecker(ParserSpec spec, long[] required, long[][] exclusiveMasks, int[] dependents, long[][] dependencyMasks) {
+		this.spec = spec;
+		this.required = required;
+		this.exclusiveMasks = exclusiveMasks;
+		this.dependents = dependents;
+		this.dependencyMasks = dependencyMasks;
+
+		boolean anyRequired = false;
+		for (long word : required) {
+			anyRequired |= word != 0;
+		}
+		this.hasRequired = anyRequired;
+	}
+
+	/**
+	 * @throws ConstraintViolationException for the first violated constraint
+	 */
+	void check(ParseResult result) {
+		InvalidArgumentException violation = findViolations(result, false);
+		if (violation != null) {
+			throw new ConstraintViolationException(violation.getMessage());
+		}
+	}
+
+	/**
+	 * Adds all violated constraints to the errors of the result
+	 */
+	void collect(ParseResult result) {
+		findViolations(result, true);
+	}
+
+	/**
+	 * @param all whether all violations are added to the result, or only the first one is returned
+	 * @return the first violation or null
+	 */
+	private InvalidArgumentException findViolations(ParseResult result, boolean all) {
+		long[] set = result.getSetBits();
+		int setWords = result.getSpec().getSetWords();
+		InvalidArgumentException first = null;
+
+		if (hasRequired) {
+			for (int word = 0; word < setWords; word++) {
+				long missing = required[word] & ~set[word];
+				while (missing != 0) {
+					int ordinal = (word << 6) + Long.numberOfTrailingZeros(missing);
+					missing &= missing - 1;
+					first = report(result, all, first, InvalidArgumentException.Reason.MISSING_REQUIRED_OPTION, ordinal, -1);
+					if (!all) {
+						return first;
+					}
+				}
+			}
+		}
+
+		for (long[] mask : exclusiveMasks) {
+			int firstSet = -1;
+			for (int word = 0; word < setWords; word++) {
+				long declared = mask[word] & set[word];
+				while (declared != 0) {
+					int ordinal = (word << 6) + Long.numberOfTrailingZeros(declared);
+					declared &= declared - 1;
+					if (firstSet < 0) {
+						firstSet = ordinal;
+						continue;
+					}
+					first = report(result, all, first, InvalidArgumentException.Reason.EXCLUSIVE_OPTIONS, firstSet, ordinal);
+					if (!all) {
+						return first;
+					}
+				}
+			}
+		}
+
+		for (int i = 0; i < dependents.length; i++) {
+			int dependent = dependents[i];
+			if ((set[dependent >>> 6] & (1L << dependent)) == 0) {
+				continue;
+			}
+			long[] mask = dependencyMasks[i];
+			for (int word = 0; word < setWords; word++) {
+				long missing = mask[word] & ~set[word];
+				while (missing != 0) {
+					int ordinal = (word << 6) + Long.numberOfTrailingZeros(missing);
+					missing &= missing - 1;
+					first = report(result, all, first, InvalidArgumentException.Reason.MISSING_DEPENDENCY, dependent, ordinal);
+					if (!all) {
+						return first;
+					}
+				}
+			}
+		}
+		return first;
+	}
+
+	private InvalidArgumentException report(ParseResult result, boolean all, InvalidArgumentException first, InvalidArgumentException.Reason reason, int ordinal, int other) {
+		InvalidArgumentException violation = new InvalidArgumentException(reason, -1, null, spec.optionName(ordinal),
+				other >= 0 ? spec.optionName(other) : null, null);
+		if (all) {
+			result.addError(violation);
+		}
+		return first != null ? first : violation;
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli;
+
+/**
+ * Switch for the diagnostic logging of this library.
+ * <p>
+ * Diagnostic logging (tracing and debug messages on the parse and bind paths) is enabled by default and additionally
+ * guarded by the level of the respective logger. Starting the JVM with {@code -Dde.larsgrefer.cli.diagnostics=false}
+ * removes it completely: {@link #ENABLED} is a constant, so the JIT compiler drops every guarded logging call
+ * including the level check.
+ *
+ * @author Lars Grefer
+ */
+public final class Diagnostics {
+
+	/**
+	 * The system property that disables diagnostic logging when set to {@code false}.
+	 */
+	public static final String PROPERTY = "de.larsgrefer.cli.diagnostics";
+
+	/**
+	 * Whether diagnostic logging is enabled.
+	 */
+	public static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty(PROPERTY));
+
+	private Diagnostics() {
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli;
+
+import de.larsgrefer.cli.model.ArgumentedOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * The value of an option which is converted from its arguments on first access.
+ * <p>
+ * The arguments are recorded as ranges of the argument array, the first argument of a range may be the value attached
+ * to a {@code --name=value} declaration. The conversion runs at most once, concurrent readers wait
+ * for it and see the same value. Options with at least {@code parallelThreshold} values are converted in chunks by the
+ * common {@link ForkJoinPool} if they are {@link ArgumentedOption#isMergeable() mergeable}.
+ *
+ * @see ValueConversion#LAZY
+ * @see ValueConversion#parallel(int)
+ * @author Lars Grefer
+ */
+final class LazyValue implements Supplier<Object> {
+
+	private final ArgumentedOption option;
+	private final String[] args;
+	private final int parallelThreshold;
+	/**
+	 * Start, end and offset of the value in the first argument of each range
+	 */
+	private int[] ranges = new int[3];
+	private int rangeCount;
+	private int valueCount;
+
+	private volatile boolean converted;
+	private Object value;
+
+	/**
+	 * Chunks are never smaller than this, to keep the overhead of the tasks small compared to the conversions
+	 */
+	private static final int MIN_CHUNK_SIZE = 256;
+
+	LazyValue(ArgumentedOption option, String[] args, int parallelThreshold) {
+		this.option = option;
+		this.args = args;
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	/**
+	 * Records the arguments from {@code start} (inclusive) to {@code end} (exclusive) as values of the option.
+	 */
+	void addRange(int start, int end) {
+		addRange(start, end, 0);
+	}
+
+	/**
+	 * Records the arguments from {@code start} (inclusive) to {@code end} (exclusive) as values of the option, the
+	 * value of the first one starts at {@code offset}.
+	 */
+	void addRange(int start, int end, int offset) {
+		if (rangeCount * 3 == ranges.length) {
+			ranges = Arrays.copyOf(ranges, ranges.length * 2);
+		}
+		ranges[rangeCount * 3] = start;
+		ranges[rangeCount * 3 + 1] = end;
+		ranges[rangeCount * 3 + 2] = offset;
+		rangeCount++;
+		valueCount += end - start;
+	}
+
+	@Override
+	public Object get() {
+		if (!converted) {
+			synchronized (this) {
+				if (!converted) {
+					value = convert();
+					converted = true;
+				}
+			}
+		}
+		return value;
+	}
+
+	private Object convert() {
+		if (valueCount >= parallelThreshold && option.isMergeable() && !option.isStateful()) {
+			int parallelism = ForkJoinPool.getCommonPoolParallelism();
+			int chunkSize = Math.max(MIN_CHUNK_SIZE, valueCount / (parallelism * 4));
+			return ForkJoinPool.commonPool().invoke(new ConversionTask(0, valueCount, chunkSize));
+		}
+		return convert(0, valueCount);
+	}
+
+	/**
+	 * Converts the values from {@code from} (inclusive) to {@code to} (exclusive), counting the values of all ranges
+	 * one after another.
+	 */
+	@SuppressWarnings("unchecked")
+	private Object convert(int from, int to) {
+		Object current = null;
+		int offset = 0;
+		for (int range = 0; range < rangeCount && offset < to; range++) {
+			int start = ranges[range * 3];
+			int end = ranges[range * 3 + 1];
+			int first = Math.max(start, start + from - offset);
+			int last = Math.min(end, start + to - offset);
+			for (int i = first; i < last; i++) {
+				String value = i == start && ranges[range * 3 + 2] > 0 ? args[i].substring(ranges[range * 3 + 2]) : args[i];
+				current = option.accumulateArgument(current, value, to - from);
+			}
+			offset += end - start;
+		}
+		return current;
+	}
+
+	private class ConversionTask extends RecursiveTask<Object> {
+
+		private final int from;
+		private final int to;
+		private final int chunkSize;
+
+		ConversionTask(int from, int to, int chunkSize) {
+			this.from = from;
+			this.to = to;
+			this.chunkSize = chunkSize;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		protected Object compute() {
+			if (to - from <= chunkSize) {
+				return convert(from, to);
+			}
+			int middle = (from + to) >>> 1;
+			ConversionTask right = new ConversionTask(middle, to, chunkSize);
+			right.fork();
+			Object left = new ConversionTask(from, middle, chunkSize).compute();
+			return option.merge(left, right.join());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return converted ? String.valueOf(value) : "<" + valueCount + " unconverted values>";
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package de.larsgrefer.cli;
+
+import de.larsgrefer.cli.model.CommandLineOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Declares the constraints between the options of an {@link ArgsHandler}.
+ * <p>
+ * Options with {@link CommandLineOption#isRequired()} are always required. Additionally, groups of options can be
+ * declared mutually exclusive, and options can depend on other options. The constraints are compiled into bitmasks
+ * by the {@link ArgsHandler#ArgsHandler(java.util.Collection, ValueConversion, OptionConstraints) constructor} of the
+ * handler, changing them afterwards has no effect on it.
+ *
+ * <pre>
+ * new OptionConstraints()
+ *		.exclusive(quiet, verbose)
+ *		.requires(output, format);
+ * </pre>
+ *
+ * @author Lars Grefer
+ */
+public final class OptionConstraints {
+
+	private final List<List<CommandLineOption>> exclusiveGroups = new ArrayList<>();
+	private final List<CommandLineOption> dependents = new ArrayList<>();
+	private final List<List<CommandLineOption>> dependencies = new ArrayList<>();
+
+	/**
+	 * @param options options of which at most one may be declared
+	 * @return this
+	 */
+	public OptionConstraints exclusive(CommandLineOption... options) {
+		if (options.length < 2) {
+			throw new IllegalArgumentException("An exclusive group needs at least two options");
+		}
+		exclusiveGroups.add(Arrays.asList(options.clone()));
+		return this;
+	}
+
+	/**
+	 * @param option the dependent option
+	 * @param dependencies the options which have to be declared if the dependent option is declared
+	 * @return this
+	 */
+	public OptionConstraints requires(CommandLineOption option, CommandLineOption... dependencies) {
+		if (dependencies.length == 0) {
+			throw new IllegalArgumentException("No dependencies given for " + option);
+		}
+		this.dependents.add(option);
+		this.dependencies.add(Arrays.asList(dependencies.clone()));
+		return this;
+	}
+
+	/**
+	 * @param spec the spec which defines the ordinals of the options
+	 * @throws IllegalArgumentException if a constraint refers to an option which is not part of the spec
+	 */
+	ConstraintChecker compile(ParserSpec spec) {
+		int words = (spec.size() + 63) >>> 6;
+
+		long[] required = new long[words];
+		for (int ordinal = 0; ordinal < spec.size(); ordinal++) {
+			if (spec.getOption(ordinal).isRequired()) {
+				required[ordinal >>> 6] |= 1L << ordinal;
+			}
+		}
+
+		long[][] exclusiveMasks = new long[exclusiveGroups.size()][];
+		for (int i = 0; i < exclusiveMasks.length; i++) {
+			exclusiveMasks[i] = mask(spec, exclusiveGroups.get(i), words);
+		}
+
+		int[] dependentOrdinals = new int[dependents.size()];
+		long[][] dependencyMasks = new long[dependents.size()][];
+		for (int i = 0; i < dependentOrdinals.length; i++) {
+			dependentOrdinals[i] = ordinalOf(spec, dependents.get(i));
+			dependencyMasks[i] = mask(spec, dependencies.get(i), words);
+		}
+
+		return new ConstraintChecker(spec, required, exclusiveMasks, dependentOrdinals, dependencyMasks);
+	}
+
+	private static long[] mask(ParserSpec spec, List<CommandLineOption> options, int words) {
+		long[] mask = new long[words];
+		for (CommandLineOption option : options) {
+			int ordinal = ordinalOf(spec, option);
+			mask[ordinal >>> 6] |= 1L << ordinal;
+		}
+		return mask;
+	}
+
+	private static int ordinalOf(ParserSpec spec, CommandLineOption option) {
+		int ordinal = spec.ordinalOf(option);
+		if (ordinal == OptionTable.NOT_FOUND) {
+			throw new IllegalArgumentException("The constrained option " + option + " is not handled");
+		}
+		return ordinal;
+	}
+}
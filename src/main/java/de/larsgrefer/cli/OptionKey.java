@@ -0,0 +1,75 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package de.larsgrefer.cli;
+
+import com.google.common.base.Objects;
+import de.larsgrefer.cli.model.CommandLineOption;
+
+/**
+ * A typed handle to one option of a {@link ParserSpec}, created by {@link ParserSpec#keyOf(CommandLineOption)}.
+ * <p>
+ * The key holds the ordinal of the option, so {@link ParseResult#get(OptionKey)} reads the value straight from the
+ * arrays of the result. Keys are immutable and can be created once and shared by all threads using the spec.
+ *
+ * @author Lars Grefer
+ * @param <V> the type of the value of the option
+ */
+public final class OptionKey<V> {
+
+	private final ParserSpec spec;
+	private final int ordinal;
+
+	OptionKey(ParserSpec spec, int ordinal) {
+		this.spec = spec;
+		this.ordinal = ordinal;
+	}
+
+	/**
+	 * @return the ordinal of the option, for the primitive getters of {@link ParseResult}
+	 */
+	public int getOrdinal() {
+		return ordinal;
+	}
+
+	public CommandLineOption getOption() {
+		return spec.getOption(ordinal);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if this key was created by another spec
+	 */
+	int ordinal(ParserSpec resultSpec) {
+		if (resultSpec != spec) {
+			throw new IllegalArgumentException(getOption() + " does not belong to this parse result");
+		}
+		return ordinal;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("ordinal", ordinal).add("option", getOption()).toString();
+	}
+}
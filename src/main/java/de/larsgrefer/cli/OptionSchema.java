@@ -0,0 +1,308 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli;
+
+import de.larsgrefer.cli.binding.FieldWriter;
+import de.larsgrefer.cli.binding.FieldWriters;
+import de.larsgrefer.cli.collections.DoubleList;
+import de.larsgrefer.cli.collections.IntList;
+import de.larsgrefer.cli.collections.LongList;
+import de.larsgrefer.cli.exceptions.DuplicateOptionException;
+import de.larsgrefer.cli.model.CommandLineOption;
+import de.larsgrefer.cli.model.DoubleListOption;
+import de.larsgrefer.cli.model.IntListOption;
+import de.larsgrefer.cli.model.ListOption;
+import de.larsgrefer.cli.model.LongListOption;
+import de.larsgrefer.cli.model.SimpleArgumentedOption;
+import de.larsgrefer.cli.model.SimpleOption;
+import de.larsgrefer.cli.parser.ArgumentParser;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The compiled, immutable option model of one annotated class.
+ * <p>
+ * A schema is built once per class by the {@link AnnotationHandler} and contains everything which can be derived from
+ * the annotations alone: the annotated fields, their option names, the parser instances and a shared
+ * {@link ParserSpec}. Filling an object only has to parse the arguments and write the fields.
+ * <p>
+ * Schemas are either compiled by reflection or created by an {@link OptionsBinder} generated at compile time.
+ *
+ * @author Lars Grefer
+ */
+public final class OptionSchema {
+
+	private final Class<?> type;
+	private final List<OptionBinding> bindings;
+	private volatile ParserSpec parserSpec;
+	private volatile ConstraintChecker constraints;
+
+	public OptionSchema(Class<?> type, List<OptionBinding> bindings) {
+		this.type = type;
+		this.bindings = Collections.unmodifiableList(new ArrayList<>(bindings));
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	public List<OptionBinding> getBindings() {
+		return bindings;
+	}
+
+	/**
+	 * Creates new, unset options for all bindings of this schema.
+	 * <p>
+	 * The n-th option of the returned list belongs to the n-th binding.
+	 *
+	 * @return a new mutable list of new options
+	 */
+	public List<CommandLineOption> createOptions() {
+		List<CommandLineOption> options = new ArrayList<>(bindings.size());
+		for (OptionBinding binding : bindings) {
+			options.add(binding.createOption());
+		}
+		return options;
+	}
+
+	/**
+	 * Returns the parser for the options of this schema.
+	 * <p>
+	 * The spec is created on the first call and shared afterwards. Its n-th option belongs to the n-th binding.
+	 *
+	 * @return the parser spec
+	 * @throws DuplicateOptionException if two fields declare the same option name
+	 */
+	public ParserSpec getParserSpec() throws DuplicateOptionException {
+		ParserSpec spec = parserSpec;
+		if (spec == null) {
+			spec = new ParserSpec(createOptions());
+			parserSpec = spec;
+		}
+		return spec;
+	}
+
+	/**
+	 * @return the checker of the required options of the {@link #getParserSpec() parser spec}, created on the first
+	 * call
+	 * @throws DuplicateOptionException if two fields declare the same option name
+	 */
+	ConstraintChecker getConstraints() throws DuplicateOptionException {
+		ConstraintChecker checker = constraints;
+		if (checker == null) {
+			checker = new OptionConstraints().compile(getParserSpec());
+			constraints = checker;
+		}
+		return checker;
+	}
+
+	/**
+	 * Writes the values of the given parse result into the fields of the target object.
+	 *
+	 * @param target the object to fill
+	 * @param result the result of the {@link #getParserSpec() parser spec} of this schema
+	 */
+	public void bind(Object target, ParseResult result) {
+		bind(target, result, 0);
+	}
+
+	/**
+	 * Writes the values of the given parse result into the fields of the target object.
+	 *
+	 * @param target the object to fill
+	 * @param result a result whose spec contains the options of this schema, in order
+	 * @param firstOrdinal the ordinal of the option of the first binding in the spec of the result
+	 */
+	void bind(Object target, ParseResult result, int firstOrdinal) {
+		for (int i = 0; i < bindings.size(); i++) {
+			OptionBinding binding = bindings.get(i);
+			int ordinal = firstOrdinal + i;
+			if (binding.kind == OptionBinding.Kind.FLAG) {
+				binding.writer.setBoolean(target, result.isSet(ordinal));
+			} else if (result.hasPrimitiveValue(ordinal)) {
+				binding.writePrimitive(target, result, ordinal);
+			} else {
+				Object value = result.getValue(ordinal);
+				if (value != null) {
+					binding.write(target, value);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the values of the given options into the fields of the target object.
+	 *
+	 * @param target the object to fill
+	 * @param options the options as created by {@link #createOptions()}
+	 */
+	public void bind(Object target, List<? extends CommandLineOption> options) {
+		for (int i = 0; i < bindings.size(); i++) {
+			Object value = options.get(i).getValue();
+			if (value != null) {
+				bindings.get(i).write(target, value);
+			}
+		}
+	}
+
+	/**
+	 * The immutable description of one annotated field
+	 */
+	public static final class OptionBinding {
+
+		public enum Kind {
+
+			FLAG, VALUE, LIST,
+			INT_LIST, INT_ARRAY,
+			LONG_LIST, LONG_ARRAY,
+			DOUBLE_LIST, DOUBLE_ARRAY
+		}
+
+		private final String fieldName;
+		private final char name;
+		private final String longName;
+		private final boolean required;
+		private final String description;
+		private final Kind kind;
+		private final ArgumentParser<?> parser;
+		private final FieldWriter writer;
+
+		public OptionBinding(String fieldName, char name, String longName, boolean required, String description, Kind kind, ArgumentParser<?> parser, FieldWriter writer) {
+			this.fieldName = fieldName;
+			this.name = name;
+			this.longName = longName;
+			this.required = required;
+			this.description = description;
+			this.kind = kind;
+			this.parser = parser;
+			this.writer = writer;
+		}
+
+		/**
+		 * @param nestedField a {@link de.larsgrefer.cli.annotations.CliNested} field referencing an object of the type
+		 * declaring this binding
+		 * @return a copy of this binding which writes the field of the object referenced by {@code nestedField}
+		 */
+		OptionBinding nestedIn(Field nestedField) {
+			return new OptionBinding(nestedField.getName() + "." + fieldName, name, longName, required, description, kind, parser, FieldWriters.nested(nestedField, writer));
+		}
+
+		public String getFieldName() {
+			return fieldName;
+		}
+
+		public char getName() {
+			return name;
+		}
+
+		public String getLongName() {
+			return longName;
+		}
+
+		public boolean isRequired() {
+			return required;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+
+		public Kind getKind() {
+			return kind;
+		}
+
+		public ArgumentParser<?> getParser() {
+			return parser;
+		}
+
+		public FieldWriter getWriter() {
+			return writer;
+		}
+
+		@SuppressWarnings("unchecked")
+		public CommandLineOption createOption() {
+			switch (kind) {
+				case FLAG:
+					return new SimpleOption(name, longName, required, description);
+				case LIST:
+					return new ListOption(name, longName, required, description, parser);
+				case INT_LIST:
+				case INT_ARRAY:
+					return new IntListOption(name, longName, required, description, (ArgumentParser<Integer>) parser);
+				case LONG_LIST:
+				case LONG_ARRAY:
+					return new LongListOption(name, longName, required, description, (ArgumentParser<Long>) parser);
+				case DOUBLE_LIST:
+				case DOUBLE_ARRAY:
+					return new DoubleListOption(name, longName, required, description, (ArgumentParser<Double>) parser);
+				default:
+					return new SimpleArgumentedOption(name, longName, required, description, parser);
+			}
+		}
+
+		void writePrimitive(Object target, ParseResult result, int ordinal) {
+			switch (result.getSpec().getValueKind(ordinal)) {
+				case INT:
+					writer.setInt(target, result.getInt(ordinal));
+					break;
+				case LONG:
+					writer.setLong(target, result.getLong(ordinal));
+					break;
+				case SHORT:
+					writer.setShort(target, result.getShort(ordinal));
+					break;
+				case BYTE:
+					writer.setByte(target, result.getByte(ordinal));
+					break;
+				case CHAR:
+					writer.setChar(target, result.getChar(ordinal));
+					break;
+				default:
+					write(target, result.getValue(ordinal));
+			}
+		}
+
+		void write(Object target, Object value) {
+			switch (kind) {
+				case FLAG:
+					writer.setBoolean(target, (Boolean) value);
+					break;
+				case INT_ARRAY:
+					writer.set(target, ((IntList) value).toArray());
+					break;
+				case LONG_ARRAY:
+					writer.set(target, ((LongList) value).toArray());
+					break;
+				case DOUBLE_ARRAY:
+					writer.set(target, ((DoubleList) value).toArray());
+					break;
+				default:
+					writer.set(target, value);
+			}
+		}
+	}
+}
@@ -0,0 +1,434 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli;
+
+import de.larsgrefer.cli.model.CommandLineOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Frozen name to option lookup tables, built once from a fixed collection of options.
+ * <p>
+ * Every option is identified by its ordinal, its position in the collection the table was built from. ASCII short
+ * names are resolved by a direct 128 slot array, all other short names by a binary search. Long names are resolved by
+ * a collision free hash table: the seed and size of the hash function are chosen at construction so that no two long
+ * names share a slot, so a lookup is one hash over the characters and one comparison.
+ * <p>
+ * Abbreviations of long names are resolved by a radix trie stored in flat arrays. Every inner node stands for the
+ * longest prefix shared by all long names below it, and its edges are a sorted range of {@link #edgeChars} leading to
+ * the nodes of the next char. Once a prefix belongs to a single long name the rest of the name is compared directly.
+ * All lookups work on regions of {@link CharSequence}s, take one step per character and neither box nor allocate.
+ *
+ * @author Lars Grefer
+ */
+final class OptionTable {
+
+	static final int NOT_FOUND = -1;
+	/**
+	 * Returned by {@link #matchLongName(java.lang.CharSequence, int, int)} for a prefix of several long names
+	 */
+	static final int AMBIGUOUS = -2;
+
+	private static final int MAX_SEEDS_PER_SIZE = 64;
+	private static final int MAX_BITS = 24;
+	/**
+	 * Above this number of edges a node is searched binary instead of linear
+	 */
+	private static final int LINEAR_EDGES = 8;
+
+	private final CommandLineOption[] options;
+	private final String[] longNames;
+
+	private final int[] asciiNames;
+	private final char[] otherNames;
+	private final int[] otherNameOrdinals;
+
+	private final String[] longNameSlots;
+	private final int[] longNameOrdinals;
+	private final int longNameSeed;
+	private final int longNameShift;
+
+	/**
+	 * The edges of node {@code n} are the indices {@code firstEdge[n]} to {@code firstEdge[n + 1]} of
+	 * {@link #edgeChars} and {@link #edgeTargets}, sorted by char. The root is node 0.
+	 */
+	private final int[] firstEdge;
+	private final char[] edgeChars;
+	private final int[] edgeTargets;
+	/**
+	 * The length of the prefix of each node, the chars from the end of the prefix of the parent are those of the
+	 * long name of {@link #prefixNames}
+	 */
+	private final int[] prefixLengths;
+	/**
+	 * The ordinal of a long name starting with the prefix of each node
+	 */
+	private final int[] prefixNames;
+	/**
+	 * The ordinal of the long name ending at each inner node, or {@link #NOT_FOUND}
+	 */
+	private final int[] nodeOrdinals;
+	/**
+	 * The ordinal of the only long name starting with the prefix of each node, or {@link #AMBIGUOUS}. Nodes with a
+	 * single long name are leaves.
+	 */
+	private final int[] prefixOrdinals;
+
+	/**
+	 * @param options the options, the names have to be unique
+	 */
+	OptionTable(Collection<? extends CommandLineOption> options) {
+		this.options = options.toArray(new CommandLineOption[options.size()]);
+		this.longNames = new String[this.options.length];
+
+		asciiNames = new int[128];
+		Arrays.fill(asciiNames, NOT_FOUND);
+		int otherCount = 0;
+		int longNameCount = 0;
+		for (int ordinal = 0; ordinal < this.options.length; ordinal++) {
+			CommandLineOption option = this.options[ordinal];
+			if (option.hasName()) {
+				if (option.getName() < 128) {
+					asciiNames[option.getName()] = ordinal;
+				} else {
+					otherCount++;
+				}
+			}
+			if (option.hasLongName()) {
+				longNameCount++;
+			}
+		}
+
+		otherNames = new char[otherCount];
+		otherNameOrdinals = new int[otherCount];
+		long[] packed = new long[otherCount];
+		int n = 0;
+		for (int ordinal = 0; ordinal < this.options.length; ordinal++) {
+			CommandLineOption option = this.options[ordinal];
+			if (option.hasName() && option.getName() >= 128) {
+				packed[n++] = ((long) option.getName() << 32) | ordinal;
+			}
+		}
+		Arrays.sort(packed);
+		for (int i = 0; i < otherCount; i++) {
+			otherNames[i] = (char) (packed[i] >>> 32);
+			otherNameOrdinals[i] = (int) packed[i];
+		}
+
+		int bits = 1;
+		while ((1 << bits) < longNameCount * 2) {
+			bits++;
+		}
+		int seed = 0;
+		String[] slots;
+		int[] slotOrdinals;
+		while (true) {
+			slots = new String[1 << bits];
+			slotOrdinals = new int[1 << bits];
+			if (fillLongNameSlots(slots, slotOrdinals, seed, 32 - bits)) {
+				break;
+			}
+			seed++;
+			if (seed % MAX_SEEDS_PER_SIZE == 0) {
+				bits++;
+				if (bits > MAX_BITS) {
+					throw new IllegalStateException("Could not find a collision free hash for the long names");
+				}
+			}
+		}
+		longNameSlots = slots;
+		longNameOrdinals = slotOrdinals;
+		longNameSeed = seed;
+		longNameShift = 32 - bits;
+
+		Integer[] order = new Integer[longNameCount];
+		n = 0;
+		for (int ordinal = 0; ordinal < this.options.length; ordinal++) {
+			if (this.options[ordinal].hasLongName()) {
+				longNames[ordinal] = this.options[ordinal].getLongName();
+				order[n++] = ordinal;
+			}
+		}
+		Arrays.sort(order, (a, b) -> longNames[a].compareTo(longNames[b]));
+
+		// every long name adds at most one leaf and one inner node
+		int maxNodes = 2 * longNameCount + 1;
+		int[] first = new int[maxNodes + 1];
+		char[] chars = new char[maxNodes];
+		int[] targets = new int[maxNodes];
+		int[] lengths = new int[maxNodes];
+		int[] names = new int[maxNodes];
+		int[] ordinals = new int[maxNodes];
+		int[] prefixes = new int[maxNodes];
+		// the range of sorted names below each node, nodes are created and filled in breadth first order
+		int[] rangeStart = new int[maxNodes];
+		int[] rangeEnd = new int[maxNodes];
+		rangeEnd[0] = longNameCount;
+		int nodeCount = 1;
+		int edgeCount = 0;
+		for (int node = 0; node < nodeCount; node++) {
+			int from = rangeStart[node];
+			int to = rangeEnd[node];
+			first[node] = edgeCount;
+			ordinals[node] = NOT_FOUND;
+			prefixes[node] = to - from == 1 ? order[from] : AMBIGUOUS;
+			if (to - from < 2) {
+				continue;
+			}
+			// the names are sorted, so the first and the last share the prefix of all of them
+			String firstName = longNames[order[from]];
+			String lastName = longNames[order[to - 1]];
+			int d = lengths[node];
+			while (d < firstName.length() && firstName.charAt(d) == lastName.charAt(d)) {
+				d++;
+			}
+			lengths[node] = d;
+			names[node] = order[from];
+			if (firstName.length() == d) {
+				ordinals[node] = order[from];
+				from++;
+			}
+			while (from < to) {
+				char c = longNames[order[from]].charAt(d);
+				int end = from + 1;
+				while (end < to && longNames[order[end]].charAt(d) == c) {
+					end++;
+				}
+				chars[edgeCount] = c;
+				targets[edgeCount++] = nodeCount;
+				rangeStart[nodeCount] = from;
+				rangeEnd[nodeCount] = end;
+				lengths[nodeCount++] = d + 1;
+				from = end;
+			}
+		}
+		first[nodeCount] = edgeCount;
+
+		firstEdge = Arrays.copyOf(first, nodeCount + 1);
+		edgeChars = Arrays.copyOf(chars, edgeCount);
+		edgeTargets = Arrays.copyOf(targets, edgeCount);
+		prefixLengths = Arrays.copyOf(lengths, nodeCount);
+		prefixNames = Arrays.copyOf(names, nodeCount);
+		nodeOrdinals = Arrays.copyOf(ordinals, nodeCount);
+		prefixOrdinals = Arrays.copyOf(prefixes, nodeCount);
+	}
+
+	private boolean fillLongNameSlots(String[] slots, int[] slotOrdinals, int seed, int shift) {
+		for (int ordinal = 0; ordinal < options.length; ordinal++) {
+			CommandLineOption option = options[ordinal];
+			if (!option.hasLongName()) {
+				continue;
+			}
+			String longName = option.getLongName();
+			int slot = hash(longName, 0, longName.length(), seed) >>> shift;
+			if (slots[slot] != null) {
+				return false;
+			}
+			slots[slot] = longName;
+			slotOrdinals[slot] = ordinal;
+		}
+		return true;
+	}
+
+	private static int hash(CharSequence s, int start, int end, int seed) {
+		int h = seed * 0x9E3779B1;
+		for (int i = start; i < end; i++) {
+			h = (h ^ s.charAt(i)) * 0x01000193;
+		}
+		return h ^ (h >>> 15);
+	}
+
+	int size() {
+		return options.length;
+	}
+
+	CommandLineOption option(int ordinal) {
+		return options[ordinal];
+	}
+
+	/**
+	 * @param name the short name
+	 * @return the ordinal of the option, or {@link #NOT_FOUND}
+	 */
+	int ordinalOf(char name) {
+		if (name < 128) {
+			return asciiNames[name];
+		}
+		int index = Arrays.binarySearch(otherNames, name);
+		return index >= 0 ? otherNameOrdinals[index] : NOT_FOUND;
+	}
+
+	/**
+	 * @param s the char sequence containing the long name
+	 * @param start the start of the long name in {@code s}, inclusive
+	 * @param end the end of the long name in {@code s}, exclusive
+	 * @return the ordinal of the option, or {@link #NOT_FOUND}
+	 */
+	int ordinalOf(CharSequence s, int start, int end) {
+		int slot = hash(s, start, end, longNameSeed) >>> longNameShift;
+		String candidate = longNameSlots[slot];
+		if (candidate == null || candidate.length() != end - start) {
+			return NOT_FOUND;
+		}
+		for (int i = 0; i < candidate.length(); i++) {
+			if (candidate.charAt(i) != s.charAt(start + i)) {
+				return NOT_FOUND;
+			}
+		}
+		return longNameOrdinals[slot];
+	}
+
+	/**
+	 * Resolves a long name or an abbreviation of it, like GNU {@code getopt_long}.
+	 *
+	 * @param s the char sequence containing the long name
+	 * @param start the start of the long name in {@code s}, inclusive
+	 * @param end the end of the long name in {@code s}, exclusive
+	 * @return the ordinal of the option with exactly this long name, else the ordinal of the only option whose long
+	 * name starts with it, else {@link #AMBIGUOUS} if there are several or {@link #NOT_FOUND} if there is none
+	 */
+	int matchLongName(CharSequence s, int start, int end) {
+		int ordinal = ordinalOf(s, start, end);
+		return ordinal != NOT_FOUND || start == end ? ordinal : matchAbbreviation(s, start, end);
+	}
+
+	private int matchAbbreviation(CharSequence s, int start, int end) {
+		int node = 0;
+		int i = start;
+		while (prefixOrdinals[node] < 0) {
+			int prefixEnd = start + prefixLengths[node];
+			for (; i < prefixEnd; i++) {
+				if (i == end) {
+					return AMBIGUOUS;
+				}
+				if (longNames[prefixNames[node]].charAt(i - start) != s.charAt(i)) {
+					return NOT_FOUND;
+				}
+			}
+			if (i == end) {
+				return nodeOrdinals[node] != NOT_FOUND ? nodeOrdinals[node] : AMBIGUOUS;
+			}
+			node = child(node, s.charAt(i++));
+			if (node == NOT_FOUND) {
+				return NOT_FOUND;
+			}
+		}
+		return matchRest(prefixOrdinals[node], s, start, i, end);
+	}
+
+	/**
+	 * Compares the rest of the name from {@code i} on with the long name of a leaf
+	 */
+	private int matchRest(int ordinal, CharSequence s, int start, int i, int end) {
+		String longName = longNames[ordinal];
+		if (end - start > longName.length()) {
+			return NOT_FOUND;
+		}
+		for (; i < end; i++) {
+			if (longName.charAt(i - start) != s.charAt(i)) {
+				return NOT_FOUND;
+			}
+		}
+		return ordinal;
+	}
+
+	/**
+	 * @return the ordinals of all options whose long name starts with the given prefix, for error messages
+	 */
+	List<Integer> ordinalsWithPrefix(CharSequence s, int start, int end) {
+		List<Integer> result = new ArrayList<>();
+		int node = nodeOf(s, start, end);
+		if (node != NOT_FOUND) {
+			collectOrdinals(node, result);
+		}
+		return result;
+	}
+
+	private void collectOrdinals(int node, List<Integer> result) {
+		if (prefixOrdinals[node] >= 0) {
+			result.add(prefixOrdinals[node]);
+		} else if (nodeOrdinals[node] != NOT_FOUND) {
+			result.add(nodeOrdinals[node]);
+		}
+		for (int edge = firstEdge[node]; edge < firstEdge[node + 1]; edge++) {
+			collectOrdinals(edgeTargets[edge], result);
+		}
+	}
+
+	/**
+	 * @return the node with the shortest prefix starting with the given one, or {@link #NOT_FOUND} if there is none.
+	 * Only the prefix of inner nodes is compared.
+	 */
+	private int nodeOf(CharSequence s, int start, int end) {
+		int node = 0;
+		int i = start;
+		while (prefixOrdinals[node] < 0) {
+			int prefixEnd = start + prefixLengths[node];
+			for (; i < prefixEnd && i < end; i++) {
+				if (longNames[prefixNames[node]].charAt(i - start) != s.charAt(i)) {
+					return NOT_FOUND;
+				}
+			}
+			if (i == end) {
+				return node;
+			}
+			node = child(node, s.charAt(i++));
+			if (node == NOT_FOUND) {
+				return NOT_FOUND;
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * @return the child of the node for the given char, or {@link #NOT_FOUND}
+	 */
+	private int child(int node, char c) {
+		int from = firstEdge[node];
+		int to = firstEdge[node + 1];
+		if (to - from > LINEAR_EDGES) {
+			int edge = Arrays.binarySearch(edgeChars, from, to, c);
+			return edge >= 0 ? edgeTargets[edge] : NOT_FOUND;
+		}
+		for (int edge = from; edge < to; edge++) {
+			if (edgeChars[edge] >= c) {
+				return edgeChars[edge] == c ? edgeTargets[edge] : NOT_FOUND;
+			}
+		}
+		return NOT_FOUND;
+	}
+
+	CommandLineOption byName(char name) {
+		int ordinal = ordinalOf(name);
+		return ordinal == NOT_FOUND ? null : options[ordinal];
+	}
+
+	CommandLineOption byLongName(CharSequence s, int start, int end) {
+		int ordinal = ordinalOf(s, start, end);
+		return ordinal == NOT_FOUND ? null : options[ordinal];
+	}
+}
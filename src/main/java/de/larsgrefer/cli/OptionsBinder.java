@@ -0,0 +1,57 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli;
+
+/**
+ * Creates the {@link OptionSchema} of one annotated class without reflection.
+ * <p>
+ * Implementations are generated by the {@link de.larsgrefer.cli.processor.OptionsBinderProcessor} and named after
+ * the annotated class (see {@link #binderName(java.lang.String)}). The {@link AnnotationHandler} picks them up
+ * automatically and falls back to reflection for classes without a generated binder.
+ *
+ * @author Lars Grefer
+ * @param <T> the annotated class
+ */
+public interface OptionsBinder<T> {
+
+	public static final String BINDER_SUFFIX = "OptionsBinder";
+
+	public OptionSchema createSchema(AnnotationHandler annotationHandler);
+
+	/**
+	 * Returns the binary name of the binder which belongs to the given class.
+	 * <p>
+	 * {@code com.example.Outer$Inner} becomes {@code com.example.Outer_InnerOptionsBinder}
+	 *
+	 * @param className the binary name of the annotated class
+	 * @return the binary name of the binder
+	 */
+	public static String binderName(String className) {
+		int packageEnd = className.lastIndexOf('.') + 1;
+		return className.substring(0, packageEnd)
+				+ className.substring(packageEnd).replace('$', '_')
+				+ BINDER_SUFFIX;
+	}
+}
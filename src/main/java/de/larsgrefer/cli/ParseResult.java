@@ -0,0 +1,308 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli;
+
+import com.google.common.base.Objects;
+import de.larsgrefer.cli.exceptions.InvalidArgumentException;
+import de.larsgrefer.cli.model.ArgumentedOption;
+import de.larsgrefer.cli.model.CommandLineOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of one {@link ParserSpec#parse(java.lang.String[])} call.
+ * <p>
+ * Holds which options were set and the values of the argumented options, indexed by the ordinals of the spec. The
+ * values are read with the same semantics as {@link CommandLineOption#getValue()}: options without arguments yield
+ * whether they were set, argumented options yield their value or null if they were not set.
+ * <p>
+ * A result is stored in two flat arrays, whatever the number of options: one {@code long[]} holding the bitset of the
+ * declared options followed by the unboxed primitive values, and one {@code Object[]} with a slot per argumented
+ * option with an object value. The {@link OptionKey}s of {@link ParserSpec#keyOf(CommandLineOption)} read the values
+ * by ordinal without any lookup.
+ * <p>
+ * Values recorded by a {@link ValueConversion#LAZY} spec are converted on their first read, which is safe from several
+ * threads.
+ *
+ * @author Lars Grefer
+ */
+public final class ParseResult {
+
+	private final ParserSpec spec;
+	/**
+	 * Bitset of the declared options indexed by ordinal. If the spec has primitive options it is followed by the bitset
+	 * of the options whose primitive value was parsed, a declaration without a value leaves its bit clear, and by the
+	 * primitive values indexed by {@link ParserSpec#slotOf(int)}.
+	 */
+	private final long[] words;
+	/**
+	 * The object values, indexed by {@link ParserSpec#slotOf(int)}, null if the spec has none
+	 */
+	private final Object[] values;
+	private List<InvalidArgumentException> errors;
+
+	ParseResult(ParserSpec spec) {
+		this.spec = spec;
+		this.words = spec.getPrimitiveSlots() > 0
+				? new long[2 * spec.getSetWords() + spec.getPrimitiveSlots()]
+				: new long[spec.getSetWords()];
+		this.values = spec.getObjectSlots() > 0 ? new Object[spec.getObjectSlots()] : null;
+	}
+
+	public ParserSpec getSpec() {
+		return spec;
+	}
+
+	void declare(int ordinal) {
+		words[ordinal >>> 6] |= 1L << ordinal;
+	}
+
+	/**
+	 * @return the stored value of an option with an object value, null for options without arguments
+	 */
+	Object getRawValue(int ordinal) {
+		int slot = spec.slotOf(ordinal);
+		return slot >= 0 ? values[slot] : null;
+	}
+
+	void setValue(int ordinal, Object value) {
+		values[spec.slotOf(ordinal)] = value;
+	}
+
+	/**
+	 * Converts all values recorded by the scan right away
+	 */
+	void convertRecordedValues() {
+		if (values == null) {
+			return;
+		}
+		for (int slot = 0; slot < values.length; slot++) {
+			if (values[slot] instanceof LazyValue) {
+				values[slot] = ((LazyValue) values[slot]).get();
+			}
+		}
+	}
+
+	void setPrimitive(int ordinal, long value) {
+		words[spec.slotOf(ordinal)] = value;
+		words[spec.getSetWords() + (ordinal >>> 6)] |= 1L << ordinal;
+	}
+
+	/**
+	 * @return whether a value was parsed for the option, which is false if it was declared without one
+	 */
+	private boolean isPrimitiveParsed(int ordinal) {
+		return (words[spec.getSetWords() + (ordinal >>> 6)] & (1L << ordinal)) != 0;
+	}
+
+	/**
+	 * @return the bitset of the declared options followed by the primitive values, not a copy. Only the first
+	 * {@link ParserSpec#getSetWords()} words belong to the bitset of the declared options.
+	 */
+	long[] getSetBits() {
+		return words;
+	}
+
+	void addError(InvalidArgumentException error) {
+		if (errors == null) {
+			errors = new ArrayList<>();
+		}
+		errors.add(error);
+	}
+
+	/**
+	 * @return whether {@link ParserSpec#parseCollectingErrors(java.lang.String[])} found invalid arguments
+	 */
+	public boolean hasErrors() {
+		return errors != null;
+	}
+
+	/**
+	 * @return the invalid arguments found by {@link ParserSpec#parseCollectingErrors(java.lang.String[])}, in the
+	 * order of the arguments
+	 */
+	public List<InvalidArgumentException> getErrors() {
+		return errors != null ? Collections.unmodifiableList(errors) : Collections.<InvalidArgumentException>emptyList();
+	}
+
+	public boolean isSet(int ordinal) {
+		return (words[ordinal >>> 6] & (1L << ordinal)) != 0;
+	}
+
+	public boolean isSet(char name) {
+		int ordinal = spec.ordinalOf(name);
+		return ordinal != OptionTable.NOT_FOUND && isSet(ordinal);
+	}
+
+	public boolean isSet(String longName) {
+		int ordinal = spec.ordinalOf(longName);
+		return ordinal != OptionTable.NOT_FOUND && isSet(ordinal);
+	}
+
+	public Object getValue(int ordinal) {
+		if (!spec.isArgumented(ordinal)) {
+			return isSet(ordinal);
+		}
+		if (!isSet(ordinal)) {
+			return null;
+		}
+		if (spec.getValueKind(ordinal) != ValueKind.OBJECT && !isPrimitiveParsed(ordinal)) {
+			return null;
+		}
+		switch (spec.getValueKind(ordinal)) {
+			case INT:
+				return getInt(ordinal);
+			case LONG:
+				return getLong(ordinal);
+			case SHORT:
+				return getShort(ordinal);
+			case BYTE:
+				return getByte(ordinal);
+			case CHAR:
+				return getChar(ordinal);
+			default:
+				Object value = values[spec.slotOf(ordinal)];
+				return value instanceof LazyValue ? ((LazyValue) value).get() : value;
+		}
+	}
+
+	/**
+	 * Returns whether the option has an unboxed value which can be read with the primitive getters
+	 *
+	 * @param ordinal the ordinal of the option
+	 * @return true if the option was set with a value and its value is stored unboxed
+	 */
+	public boolean hasPrimitiveValue(int ordinal) {
+		return spec.getValueKind(ordinal) != ValueKind.OBJECT && isPrimitiveParsed(ordinal);
+	}
+
+	public int getInt(int ordinal) {
+		return (int) primitive(ordinal);
+	}
+
+	public long getLong(int ordinal) {
+		return primitive(ordinal);
+	}
+
+	public short getShort(int ordinal) {
+		return (short) primitive(ordinal);
+	}
+
+	public byte getByte(int ordinal) {
+		return (byte) primitive(ordinal);
+	}
+
+	public char getChar(int ordinal) {
+		return (char) primitive(ordinal);
+	}
+
+	private long primitive(int ordinal) {
+		if (spec.getValueKind(ordinal) == ValueKind.OBJECT) {
+			throw new IllegalStateException(spec.getOption(ordinal) + " has no primitive value");
+		}
+		return words[spec.slotOf(ordinal)];
+	}
+
+	public Object getValue(char name) {
+		int ordinal = spec.ordinalOf(name);
+		return ordinal != OptionTable.NOT_FOUND ? getValue(ordinal) : null;
+	}
+
+	public Object getValue(String longName) {
+		int ordinal = spec.ordinalOf(longName);
+		return ordinal != OptionTable.NOT_FOUND ? getValue(ordinal) : null;
+	}
+
+	@SuppressWarnings("unchecked")
+	public <V> V getValue(CommandLineOption<V> option) {
+		int ordinal = spec.ordinalOf(option);
+		if (ordinal == OptionTable.NOT_FOUND) {
+			throw new IllegalArgumentException(option + " does not belong to this parse result");
+		}
+		return (V) getValue(ordinal);
+	}
+
+	/**
+	 * @param key a key of the spec of this result
+	 * @return whether the option of the key was set
+	 */
+	public boolean isSet(OptionKey<?> key) {
+		return isSet(key.ordinal(spec));
+	}
+
+	/**
+	 * Reads the value of an option by its ordinal, without the lookup of {@link #getValue(CommandLineOption)}.
+	 * <p>
+	 * Primitive values are boxed, use the primitive getters with {@link OptionKey#getOrdinal()} to avoid that.
+	 *
+	 * @param key a key of the spec of this result
+	 * @return the value of the option, as {@link #getValue(int)}
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V get(OptionKey<V> key) {
+		return (V) getValue(key.ordinal(spec));
+	}
+
+	/**
+	 * Copies this result into the options of the spec, as {@link ArgsHandler#fillOptionWithArgs(java.lang.String[])}
+	 * did before there were parse results
+	 */
+	void applyToOptions() {
+		for (int ordinal = 0; ordinal < spec.size(); ordinal++) {
+			if (!isSet(ordinal)) {
+				continue;
+			}
+			CommandLineOption option = spec.getOption(ordinal);
+			option.setSet(true);
+			Object raw = spec.getValueKind(ordinal) == ValueKind.OBJECT ? getRawValue(ordinal) : null;
+			if (raw instanceof LazyValue) {
+				((ArgumentedOption) option).setValueSupplier((LazyValue) raw);
+				continue;
+			}
+			Object value = getValue(ordinal);
+			if (value != null && option instanceof ArgumentedOption) {
+				((ArgumentedOption) option).setValue(value);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		Objects.ToStringHelper helper = Objects.toStringHelper(this);
+		for (int ordinal = 0; ordinal < spec.size(); ordinal++) {
+			if (isSet(ordinal)) {
+				CommandLineOption option = spec.getOption(ordinal);
+				Object raw = spec.getValueKind(ordinal) == ValueKind.OBJECT ? getRawValue(ordinal) : null;
+				Object value = raw instanceof LazyValue ? raw : getValue(ordinal);
+				helper.add(option.hasLongName() ? option.getLongName() : String.valueOf(option.getName()), value);
+			}
+		}
+		if (errors != null) {
+			helper.add("errors", errors.size());
+		}
+		return helper.toString();
+	}
+}
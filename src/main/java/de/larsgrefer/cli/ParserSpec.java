@@ -0,0 +1,634 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli;
+
+import de.larsgrefer.cli.exceptions.DuplicateOptionException;
+import de.larsgrefer.cli.exceptions.InvalidArgumentException;
+import de.larsgrefer.cli.exceptions.NoArgumentAllowedException;
+import de.larsgrefer.cli.model.ArgumentedOption;
+import de.larsgrefer.cli.model.CommandLineOption;
+import de.larsgrefer.cli.parser.ArgumentParser;
+import de.larsgrefer.cli.parser.ByteArgumentParser;
+import de.larsgrefer.cli.parser.CharArgumentParser;
+import de.larsgrefer.cli.parser.ErrorChannel;
+import de.larsgrefer.cli.parser.IntArgumentParser;
+import de.larsgrefer.cli.parser.LongArgumentParser;
+import de.larsgrefer.cli.parser.ShortArgumentParser;
+import de.larsgrefer.cli.source.ArgumentSource;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * An immutable, reusable parser for a fixed set of options.
+ * <p>
+ * The spec is built once from the options and can be shared by any number of threads. Every call of
+ * {@link #parse(java.lang.String[])} returns an independent {@link ParseResult}, the options themselves are never
+ * modified. They only serve as templates for the names and the parsing of the values (see
+ * {@link ArgumentedOption#accumulate(java.lang.Object, java.lang.String)}), so their parsers have to be stateless.
+ * Only {@link ArgumentedOption#isStateful() stateful} options hold the value being parsed while an argument is added.
+ * <p>
+ * Single valued options with a primitive parser such as {@link IntArgumentParser} are parsed without boxing, their
+ * values can be read with the primitive getters of the {@link ParseResult}.
+ * <p>
+ * With {@link ValueConversion#LAZY} the arguments of the other argumented options are only recorded by the scan and
+ * converted when the value is read. {@link ValueConversion#parallel(int)} converts options with many values in
+ * parallel.
+ * <p>
+ * {@link #parseCollectingErrors(java.lang.String[])} does not stop at the first invalid argument, but collects all of
+ * them in the result.
+ *
+ * @author Lars Grefer
+ */
+public final class ParserSpec {
+
+	private final List<CommandLineOption> options;
+	private final OptionTable table;
+	private final ArgumentedOption[] argumentedOptions;
+	private final ValueKind[] valueKinds;
+	private final ArgumentParser<?>[] primitiveParsers;
+	/**
+	 * Index of the value of each argumented option in {@link #objectSlots} or {@link #primitiveSlots} of a result, -1
+	 * for options without arguments
+	 */
+	private final int[] slots;
+	private final int setWords;
+	private final int objectSlots;
+	private final int primitiveSlots;
+	private final Map<CommandLineOption, Integer> ordinals;
+	private final ValueConversion conversion;
+
+	public ParserSpec(Collection<? extends CommandLineOption> options) throws DuplicateOptionException {
+		this(options, ValueConversion.EAGER);
+	}
+
+	/**
+	 * @param options the options to parse
+	 * @param conversion when the values of the options are converted
+	 * @throws DuplicateOptionException if two options have the same name or long name
+	 */
+	public ParserSpec(Collection<? extends CommandLineOption> options, ValueConversion conversion) throws DuplicateOptionException {
+		checkDuplicates(options);
+		this.conversion = conversion;
+
+		this.options = Collections.unmodifiableList(new ArrayList<>(options));
+		this.table = new OptionTable(this.options);
+		this.argumentedOptions = new ArgumentedOption[this.options.size()];
+		this.valueKinds = new ValueKind[this.options.size()];
+		this.primitiveParsers = new ArgumentParser<?>[this.options.size()];
+		this.slots = new int[this.options.size()];
+		this.setWords = (this.options.size() + 63) >>> 6;
+		this.ordinals = new IdentityHashMap<>();
+		int objects = 0;
+		int primitives = 0;
+		for (int ordinal = 0; ordinal < this.options.size(); ordinal++) {
+			CommandLineOption option = this.options.get(ordinal);
+			if (option instanceof ArgumentedOption) {
+				argumentedOptions[ordinal] = (ArgumentedOption) option;
+			}
+			valueKinds[ordinal] = ValueKind.of(option);
+			if (valueKinds[ordinal] != ValueKind.OBJECT) {
+				primitiveParsers[ordinal] = argumentedOptions[ordinal].getParser();
+				slots[ordinal] = primitives++;
+			} else {
+				slots[ordinal] = argumentedOptions[ordinal] != null ? objects++ : -1;
+			}
+			ordinals.put(option, ordinal);
+		}
+		// the primitive values follow the bitsets of the declared options and of the parsed primitive values
+		for (int ordinal = 0; ordinal < slots.length; ordinal++) {
+			if (valueKinds[ordinal] != ValueKind.OBJECT) {
+				slots[ordinal] += 2 * setWords;
+			}
+		}
+		this.objectSlots = objects;
+		this.primitiveSlots = primitives;
+	}
+
+	private static void checkDuplicates(Collection<? extends CommandLineOption> options) throws DuplicateOptionException {
+		Set<Character> names = new HashSet<>();
+		Set<String> longNames = new HashSet<>();
+		for (CommandLineOption opt : options) {
+			if (opt.hasName() && !names.add(opt.getName())) {
+				String dop = options.stream()
+						.filter(option -> option.getName() == opt.getName())
+						.map(option -> option.toString())
+						.collect(Collectors.joining("\n"));
+				throw new DuplicateOptionException("The following Options have duplicate Names:\n" + dop);
+			}
+			if (opt.hasLongName() && !longNames.add(opt.getLongName())) {
+				String dop = options.stream()
+						.filter(option -> opt.getLongName().equals(option.getLongName()))
+						.map(option -> option.toString())
+						.collect(Collectors.joining("\n"));
+				throw new DuplicateOptionException("The following Options have duplicate LongNames:\n" + dop);
+			}
+		}
+	}
+
+	/**
+	 * Parses the given arguments.
+	 * <p>
+	 * The arguments are scanned once from left to right. Every argument starting with {@code -} declares one or more
+	 * options, all following arguments up to the next declaration are values of the last declared option. Long names
+	 * can be abbreviated as long as only one long name starts with the abbreviation, and {@code --name=value} attaches
+	 * the first value to the declaration.
+	 *
+	 * @param args the command line arguments
+	 * @return the result of this parse
+	 * @throws NoArgumentAllowedException if arguments are given for an option which does not take any
+	 */
+	public ParseResult parse(String[] args) throws NoArgumentAllowedException {
+		ParseResult result = new ParseResult(this);
+		int current = OptionTable.NOT_FOUND;
+		int currentIndex = -1;
+
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if (isOptionDeclaration(arg)) {
+				currentIndex = i;
+				if (arg.length() > 1 && arg.charAt(1) == '-') {
+					current = table.ordinalOf(arg, 2, arg.length());
+					if (current != OptionTable.NOT_FOUND) {
+						result.declare(current);
+					} else {
+						int nameEnd = nameEnd(arg);
+						current = declareLongNamedOption(result, arg, nameEnd, i, null);
+						if (current != OptionTable.NOT_FOUND && nameEnd < arg.length()) {
+							i = addAttachedValue(result, current, args, i, nameEnd + 1);
+						}
+					}
+				} else {
+					current = declareShortNamedOption(result, arg, i, null);
+				}
+			} else if (current != OptionTable.NOT_FOUND && isRecorded(current)) {
+				int end = i + countValues(args, i);
+				recordValues(result, current, args, i, end);
+				i = end - 1;
+			} else if (current != OptionTable.NOT_FOUND) {
+				int expectedValues = valueKinds[current] == ValueKind.OBJECT && result.getRawValue(current) == null
+						? countValues(args, i)
+						: 0;
+				addValue(result, current, arg, expectedValues, args[currentIndex]);
+			}
+		}
+
+		if (conversion.isRecording() && !conversion.isLazy()) {
+			result.convertRecordedValues();
+		}
+		return result;
+	}
+
+	/**
+	 * Parses the given arguments and collects all invalid arguments in the result instead of throwing at the first.
+	 * <p>
+	 * Unknown options, arguments for options which do not take any and values which can not be parsed are recorded as
+	 * {@link InvalidArgumentException}s without stack trace, see {@link ParseResult#getErrors()}, and the scan goes on
+	 * with the next argument. All values are converted during the scan, regardless of the {@link ValueConversion}, so
+	 * every invalid value is found. The built-in numeric parsers report invalid values without throwing an exception.
+	 *
+	 * @param args the command line arguments
+	 * @return the result of this parse, including the invalid arguments
+	 */
+	public ParseResult parseCollectingErrors(String[] args) {
+		ErrorChannel errors = new ErrorChannel();
+		ParseResult result = new ParseResult(this);
+		int current = OptionTable.NOT_FOUND;
+
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if (isOptionDeclaration(arg)) {
+				if (arg.length() > 1 && arg.charAt(1) == '-') {
+					current = table.ordinalOf(arg, 2, arg.length());
+					if (current != OptionTable.NOT_FOUND) {
+						result.declare(current);
+					} else {
+						int nameEnd = nameEnd(arg);
+						current = declareLongNamedOption(result, arg, nameEnd, i, errors);
+						if (current != OptionTable.NOT_FOUND && nameEnd < arg.length()) {
+							int expectedValues = valueKinds[current] == ValueKind.OBJECT && result.getRawValue(current) == null
+									? 1 + countValues(args, i + 1)
+									: 0;
+							addValueCollectingErrors(result, current, arg.substring(nameEnd + 1), expectedValues, i, errors);
+						}
+					}
+				} else {
+					current = declareShortNamedOption(result, arg, i, errors);
+				}
+			} else if (current != OptionTable.NOT_FOUND) {
+				int expectedValues = valueKinds[current] == ValueKind.OBJECT && result.getRawValue(current) == null
+						? countValues(args, i)
+						: 0;
+				addValueCollectingErrors(result, current, arg, expectedValues, i, errors);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return whether the values of the option are recorded by the scan and converted later
+	 */
+	private boolean isRecorded(int ordinal) {
+		return conversion.isRecording() && valueKinds[ordinal] == ValueKind.OBJECT && argumentedOptions[ordinal] != null;
+	}
+
+	/**
+	 * Parses the arguments of the given source.
+	 * <p>
+	 * The arguments are scanned like in {@link #parse(java.lang.String[])}, but each argument is only held until the
+	 * next one is read. Values are parsed as soon as they are read, without creating a {@link String} for values of
+	 * primitive options. The source is not closed.
+	 *
+	 * @param source the command line arguments
+	 * @return the result of this parse
+	 * @throws NoArgumentAllowedException if arguments are given for an option which does not take any
+	 * @throws IOException if the source can not be read
+	 */
+	public ParseResult parse(ArgumentSource source) throws NoArgumentAllowedException, IOException {
+		ParseResult result = new ParseResult(this);
+		int current = OptionTable.NOT_FOUND;
+		String declaration = null;
+
+		int index = 0;
+		for (CharSequence arg = source.next(); arg != null; arg = source.next(), index++) {
+			if (isOptionDeclaration(arg)) {
+				int nameEnd = OptionTable.NOT_FOUND;
+				if (arg.length() > 1 && arg.charAt(1) == '-') {
+					current = table.ordinalOf(arg, 2, arg.length());
+					if (current != OptionTable.NOT_FOUND) {
+						result.declare(current);
+					} else {
+						nameEnd = nameEnd(arg);
+						current = declareLongNamedOption(result, arg, nameEnd, index, null);
+					}
+				} else {
+					current = declareShortNamedOption(result, arg, index, null);
+				}
+				// only needed for the error message, the argument itself may be overwritten by the next one
+				declaration = current != OptionTable.NOT_FOUND && !isArgumented(current) ? arg.toString() : null;
+				if (current != OptionTable.NOT_FOUND && nameEnd != OptionTable.NOT_FOUND && nameEnd < arg.length()) {
+					addValue(result, current, arg.subSequence(nameEnd + 1, arg.length()), 0, declaration);
+				}
+			} else if (current != OptionTable.NOT_FOUND) {
+				addValue(result, current, arg, 0, declaration);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Parses the arguments of the given source and collects all invalid arguments in the result, like
+	 * {@link #parseCollectingErrors(java.lang.String[])}. The source is not closed.
+	 *
+	 * @param source the command line arguments
+	 * @return the result of this parse, including the invalid arguments
+	 * @throws IOException if the source can not be read
+	 */
+	public ParseResult parseCollectingErrors(ArgumentSource source) throws IOException {
+		ErrorChannel errors = new ErrorChannel();
+		ParseResult result = new ParseResult(this);
+		int current = OptionTable.NOT_FOUND;
+
+		int index = 0;
+		for (CharSequence arg = source.next(); arg != null; arg = source.next(), index++) {
+			if (isOptionDeclaration(arg)) {
+				int nameEnd = OptionTable.NOT_FOUND;
+				if (arg.length() > 1 && arg.charAt(1) == '-') {
+					current = table.ordinalOf(arg, 2, arg.length());
+					if (current != OptionTable.NOT_FOUND) {
+						result.declare(current);
+					} else {
+						nameEnd = nameEnd(arg);
+						current = declareLongNamedOption(result, arg, nameEnd, index, errors);
+					}
+				} else {
+					current = declareShortNamedOption(result, arg, index, errors);
+				}
+				if (current != OptionTable.NOT_FOUND && nameEnd != OptionTable.NOT_FOUND && nameEnd < arg.length()) {
+					addValueCollectingErrors(result, current, arg.subSequence(nameEnd + 1, arg.length()), 0, index, errors);
+				}
+			} else if (current != OptionTable.NOT_FOUND) {
+				addValueCollectingErrors(result, current, arg, 0, index, errors);
+			}
+		}
+
+		return result;
+	}
+
+	private static boolean isOptionDeclaration(CharSequence arg) {
+		return arg.length() > 0 && arg.charAt(0) == '-';
+	}
+
+	/**
+	 * @param arg a declaration starting with {@code --}
+	 * @return the end of the long name, the index of the first {@code =} or the length of the declaration
+	 */
+	private static int nameEnd(CharSequence arg) {
+		for (int i = 2; i < arg.length(); i++) {
+			if (arg.charAt(i) == '=') {
+				return i;
+			}
+		}
+		return arg.length();
+	}
+
+	/**
+	 * Declares the option with the given long name, or the only option whose long name starts with it. Declarations
+	 * which are exactly a long name are looked up directly by the scan, without searching for a {@code =}.
+	 *
+	 * @param arg the declaration, starting with {@code --}
+	 * @param nameEnd the end of the long name in the declaration
+	 * @param errors the channel of a collecting parse, null if unknown names are ignored
+	 * @return the ordinal of the declared option, or {@link OptionTable#NOT_FOUND} if the name is unknown or ambiguous
+	 */
+	private int declareLongNamedOption(ParseResult result, CharSequence arg, int nameEnd, int index, ErrorChannel errors) {
+		int ordinal = table.matchLongName(arg, 2, nameEnd);
+		if (ordinal >= 0) {
+			result.declare(ordinal);
+			return ordinal;
+		}
+		if (errors != null && nameEnd > 2) {
+			reportLongName(result, arg, nameEnd, index, ordinal == OptionTable.AMBIGUOUS);
+		}
+		return OptionTable.NOT_FOUND;
+	}
+
+	/**
+	 * Kept out of {@link #declareLongNamedOption(ParseResult, CharSequence, int, int, ErrorChannel)}, so the scan stays
+	 * small enough to be inlined
+	 */
+	private void reportLongName(ParseResult result, CharSequence arg, int nameEnd, int index, boolean ambiguous) {
+		String option = arg.subSequence(0, nameEnd).toString();
+		if (ambiguous) {
+			String candidates = table.ordinalsWithPrefix(arg, 2, nameEnd).stream()
+					.map(this::optionName)
+					.collect(Collectors.joining(", "));
+			result.addError(new InvalidArgumentException(InvalidArgumentException.Reason.AMBIGUOUS_OPTION, index, arg.toString(), option, candidates, null));
+		} else {
+			result.addError(new InvalidArgumentException(InvalidArgumentException.Reason.UNKNOWN_OPTION, index, arg.toString(), option, null, null));
+		}
+	}
+
+	/**
+	 * Adds the value of the {@code --name=value} declaration at {@code index}, and records the following values with it
+	 * if they are converted later.
+	 *
+	 * @param valueStart the start of the value in the declaration
+	 * @return the index of the last argument consumed
+	 */
+	private int addAttachedValue(ParseResult result, int ordinal, String[] args, int index, int valueStart) throws NoArgumentAllowedException {
+		String arg = args[index];
+		if (isRecorded(ordinal)) {
+			int end = index + 1 + countValues(args, index + 1);
+			recordValues(result, ordinal, args, index, end, valueStart);
+			return end - 1;
+		}
+		int expectedValues = valueKinds[ordinal] == ValueKind.OBJECT && result.getRawValue(ordinal) == null
+				? 1 + countValues(args, index + 1)
+				: 0;
+		addValue(result, ordinal, arg.substring(valueStart), expectedValues, arg);
+		return index;
+	}
+
+	/**
+	 * @param arg the declaration, starting with {@code -}
+	 * @param errors the channel of a collecting parse, null if unknown names are ignored
+	 * @return the ordinal of the last declared option, or {@link OptionTable#NOT_FOUND}
+	 */
+	private int declareShortNamedOption(ParseResult result, CharSequence arg, int index, ErrorChannel errors) {
+		int ordinal = OptionTable.NOT_FOUND;
+		for (int i = 1; i < arg.length(); i++) {
+			ordinal = table.ordinalOf(arg.charAt(i));
+			if (ordinal != OptionTable.NOT_FOUND) {
+				result.declare(ordinal);
+			} else if (errors != null) {
+				result.addError(new InvalidArgumentException(InvalidArgumentException.Reason.UNKNOWN_OPTION, index, arg.toString(), "-" + arg.charAt(i), null, null));
+			}
+		}
+		return ordinal;
+	}
+
+	private void addValue(ParseResult result, int ordinal, CharSequence value, int expectedValues, CharSequence declaration) throws NoArgumentAllowedException {
+		ArgumentedOption option = argumentedOptions[ordinal];
+		if (option == null) {
+			throw new NoArgumentAllowedException("No arguments allowed for Option " + declaration);
+		}
+		switch (valueKinds[ordinal]) {
+			case INT:
+				result.setPrimitive(ordinal, ((IntArgumentParser) primitiveParsers[ordinal]).parseInt(value));
+				break;
+			case LONG:
+				result.setPrimitive(ordinal, ((LongArgumentParser) primitiveParsers[ordinal]).parseLong(value));
+				break;
+			case SHORT:
+				result.setPrimitive(ordinal, ((ShortArgumentParser) primitiveParsers[ordinal]).parseShort(value));
+				break;
+			case BYTE:
+				result.setPrimitive(ordinal, ((ByteArgumentParser) primitiveParsers[ordinal]).parseByte(value));
+				break;
+			case CHAR:
+				result.setPrimitive(ordinal, ((CharArgumentParser) primitiveParsers[ordinal]).parseChar(value));
+				break;
+			default:
+				result.setValue(ordinal, option.accumulateArgument(result.getRawValue(ordinal), value, expectedValues));
+		}
+	}
+
+	private void addValueCollectingErrors(ParseResult result, int ordinal, CharSequence value, int expectedValues, int index, ErrorChannel errors) {
+		ArgumentedOption option = argumentedOptions[ordinal];
+		if (option == null) {
+			result.addError(new InvalidArgumentException(InvalidArgumentException.Reason.NO_ARGUMENT_ALLOWED, index, value.toString(), optionName(ordinal), null, null));
+			return;
+		}
+		long primitive;
+		try {
+			switch (valueKinds[ordinal]) {
+				case INT:
+					primitive = ((IntArgumentParser) primitiveParsers[ordinal]).parseInt(value, 0, value.length(), errors);
+					break;
+				case LONG:
+					primitive = ((LongArgumentParser) primitiveParsers[ordinal]).parseLong(value, 0, value.length(), errors);
+					break;
+				case SHORT:
+					primitive = ((ShortArgumentParser) primitiveParsers[ordinal]).parseShort(value, 0, value.length(), errors);
+					break;
+				case BYTE:
+					primitive = ((ByteArgumentParser) primitiveParsers[ordinal]).parseByte(value, 0, value.length(), errors);
+					break;
+				case CHAR:
+					primitive = ((CharArgumentParser) primitiveParsers[ordinal]).parseChar(value);
+					break;
+				default:
+					result.setValue(ordinal, option.accumulateArgument(result.getRawValue(ordinal), value, expectedValues));
+					return;
+			}
+		} catch (RuntimeException ex) {
+			result.addError(new InvalidArgumentException(InvalidArgumentException.Reason.INVALID_VALUE, index, value.toString(), optionName(ordinal), null, ex));
+			return;
+		}
+		if (errors.hasError()) {
+			String detail = errors.getCause() == null ? errors.getMessage() : null;
+			result.addError(new InvalidArgumentException(InvalidArgumentException.Reason.INVALID_VALUE, index, value.toString(), optionName(ordinal), detail, errors.getCause()));
+			errors.clear();
+		} else {
+			result.setPrimitive(ordinal, primitive);
+		}
+	}
+
+	/**
+	 * @return the name of the option as it is declared in the arguments, for error messages
+	 */
+	String optionName(int ordinal) {
+		CommandLineOption option = options.get(ordinal);
+		return option.hasLongName() ? "--" + option.getLongName() : "-" + option.getName();
+	}
+
+	private void recordValues(ParseResult result, int ordinal, String[] args, int start, int end) {
+		recordValues(result, ordinal, args, start, end, 0);
+	}
+
+	/**
+	 * @param offset the start of the value in the first argument
+	 */
+	private void recordValues(ParseResult result, int ordinal, String[] args, int start, int end, int offset) {
+		LazyValue value = (LazyValue) result.getRawValue(ordinal);
+		if (value == null) {
+			value = new LazyValue(argumentedOptions[ordinal], args, conversion.getParallelThreshold());
+			result.setValue(ordinal, value);
+		}
+		value.addRange(start, end, offset);
+	}
+
+	/**
+	 * @return the number of arguments from {@code index} on up to the next option declaration
+	 */
+	private static int countValues(String[] args, int index) {
+		int end = index;
+		while (end < args.length && !isOptionDeclaration(args[end])) {
+			end++;
+		}
+		return end - index;
+	}
+
+	public List<CommandLineOption> getOptions() {
+		return options;
+	}
+
+	public ValueConversion getConversion() {
+		return conversion;
+	}
+
+	public int size() {
+		return options.size();
+	}
+
+	public CommandLineOption getOption(int ordinal) {
+		return options.get(ordinal);
+	}
+
+	/**
+	 * @param option one of the options of this spec
+	 * @return the ordinal of the option, or -1 if it does not belong to this spec
+	 */
+	public int ordinalOf(CommandLineOption option) {
+		Integer ordinal = ordinals.get(option);
+		return ordinal != null ? ordinal : OptionTable.NOT_FOUND;
+	}
+
+	/**
+	 * @param name the short name
+	 * @return the ordinal of the option, or -1 if there is none
+	 */
+	public int ordinalOf(char name) {
+		return table.ordinalOf(name);
+	}
+
+	/**
+	 * @param longName the long name
+	 * @return the ordinal of the option, or -1 if there is none
+	 */
+	public int ordinalOf(String longName) {
+		return table.ordinalOf(longName, 0, longName.length());
+	}
+
+	boolean isArgumented(int ordinal) {
+		return argumentedOptions[ordinal] != null;
+	}
+
+	ValueKind getValueKind(int ordinal) {
+		return valueKinds[ordinal];
+	}
+
+	/**
+	 * @param option one of the options of this spec
+	 * @return a typed key to read the value of the option from the results of this spec without a lookup
+	 * @throws IllegalArgumentException if the option does not belong to this spec
+	 */
+	public <V> OptionKey<V> keyOf(CommandLineOption<V> option) {
+		int ordinal = ordinalOf(option);
+		if (ordinal == OptionTable.NOT_FOUND) {
+			throw new IllegalArgumentException(option + " does not belong to this spec");
+		}
+		return new OptionKey<>(this, ordinal);
+	}
+
+	/**
+	 * @return the index of the value of the option in the object values of a result, or in the words of a result if
+	 * its value is primitive, -1 if it takes no arguments
+	 */
+	int slotOf(int ordinal) {
+		return slots[ordinal];
+	}
+
+	/**
+	 * @return the number of words of the bitset of the declared options of a result. If the spec has primitive
+	 * options, they are followed by the same number of words for the bitset of the parsed primitive values and the
+	 * primitive values.
+	 */
+	int getSetWords() {
+		return setWords;
+	}
+
+	int getObjectSlots() {
+		return objectSlots;
+	}
+
+	int getPrimitiveSlots() {
+		return primitiveSlots;
+	}
+
+	OptionTable getTable() {
+		return table;
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli;
+
+import de.larsgrefer.cli.exceptions.DuplicateOptionException;
+import de.larsgrefer.cli.exceptions.FieldBindingException;
+import de.larsgrefer.cli.exceptions.NoArgumentAllowedException;
+import de.larsgrefer.cli.exceptions.UnknownSubcommandException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Dispatches a command line to one of several subcommands, each with its own {@link de.larsgrefer.cli.annotations.CliOption}
+ * annotated class.
+ * <p>
+ * The first argument which does not start with {@code -} names the subcommand, the arguments following it are filled
+ * into a new options object of that subcommand. Arguments before the subcommand are filled into the
+ * {@link #setGlobalOptions(java.lang.Object) global options}, if there are any. Since the subcommand ends them, they
+ * can only be options without values.
+ * <p>
+ * Registering a subcommand only stores its factory. The options object is created and the schema of its class is
+ * compiled by the {@link AnnotationHandler} when the subcommand is used for the first time, so the cost of a route does
+ * not depend on the number of registered subcommands.
+ *
+ * @author Lars Grefer
+ */
+public class SubcommandRouter {
+
+	private final AnnotationHandler annotationHandler;
+	private final Map<String, Supplier<?>> subcommands = new TreeMap<>();
+	private Object globalOptions;
+
+	public SubcommandRouter() {
+		this(new AnnotationHandler());
+	}
+
+	public SubcommandRouter(AnnotationHandler annotationHandler) {
+		this.annotationHandler = annotationHandler;
+	}
+
+	/**
+	 * Registers a subcommand.
+	 *
+	 * @param name the name of the subcommand on the command line
+	 * @param optionsFactory creates a new options object for every route to this subcommand
+	 * @return this router
+	 */
+	public SubcommandRouter register(String name, Supplier<?> optionsFactory) {
+		if (name.isEmpty() || name.charAt(0) == '-') {
+			throw new IllegalArgumentException("Invalid subcommand name: " + name);
+		}
+		if (subcommands.putIfAbsent(name, optionsFactory) != null) {
+			throw new IllegalArgumentException("Subcommand " + name + " is already registered");
+		}
+		return this;
+	}
+
+	public Set<String> getSubcommandNames() {
+		return Collections.unmodifiableSet(subcommands.keySet());
+	}
+
+	public AnnotationHandler getAnnotationHandler() {
+		return annotationHandler;
+	}
+
+	public Object getGlobalOptions() {
+		return globalOptions;
+	}
+
+	public void setGlobalOptions(Object globalOptions) {
+		this.globalOptions = globalOptions;
+	}
+
+	/**
+	 * Routes the given arguments to their subcommand.
+	 *
+	 * @param args the command line arguments
+	 * @return the subcommand with its filled options
+	 * @throws UnknownSubcommandException if no subcommand is given or it is not registered
+	 * @throws DuplicateOptionException if two fields of the options class declare the same option name
+	 * @throws NoArgumentAllowedException if arguments are given for an option which does not take any
+	 * @throws de.larsgrefer.cli.exceptions.ConstraintViolationException if a required option is missing
+	 */
+	public Route route(String[] args) throws UnknownSubcommandException, DuplicateOptionException, NoArgumentAllowedException {
+		int index = 0;
+		while (index < args.length && !args[index].isEmpty() && args[index].charAt(0) == '-') {
+			index++;
+		}
+		if (index == args.length) {
+			throw new UnknownSubcommandException("No subcommand given, expected one of " + subcommands.keySet());
+		}
+
+		String name = args[index];
+		Supplier<?> optionsFactory = subcommands.get(name);
+		if (optionsFactory == null) {
+			throw new UnknownSubcommandException("Unknown subcommand " + name + ", expected one of " + subcommands.keySet());
+		}
+
+		if (globalOptions != null) {
+			fill(globalOptions, Arrays.copyOfRange(args, 0, index));
+		}
+		Object options = optionsFactory.get();
+		String[] subcommandArgs = Arrays.copyOfRange(args, index + 1, args.length);
+		fill(options, subcommandArgs);
+		return new Route(name, options, subcommandArgs);
+	}
+
+	private void fill(Object options, String[] args) throws DuplicateOptionException, NoArgumentAllowedException {
+		try {
+			annotationHandler.fillOptions(options, args);
+		} catch (IllegalAccessException ex) {
+			// the fields are written by FieldWriters, which report inaccessible fields unchecked
+			throw new FieldBindingException("Could not fill " + options.getClass().getName(), ex);
+		}
+	}
+
+	/**
+	 * The result of {@link #route(java.lang.String[])}
+	 */
+	public static final class Route {
+
+		private final String name;
+		private final Object options;
+		private final String[] arguments;
+
+		Route(String name, Object options, String[] arguments) {
+			this.name = name;
+			this.options = options;
+			this.arguments = arguments;
+		}
+
+		/**
+		 * @return the name of the subcommand
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the filled options object of the subcommand
+		 */
+		public Object getOptions() {
+			return options;
+		}
+
+		/**
+		 * @return the arguments following the subcommand
+		 */
+		public String[] getArguments() {
+			return arguments.clone();
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli;
+
+/**
+ * Determines when and how the values of argumented options are converted by their parsers.
+ * <p>
+ * Both modes can be combined with a parallel conversion of options with many values, see {@link #parallel(int)}.
+ *
+ * @see ParserSpec#ParserSpec(java.util.Collection, de.larsgrefer.cli.ValueConversion)
+ * @author Lars Grefer
+ */
+public final class ValueConversion {
+
+	/**
+	 * Every value is converted while the arguments are scanned. This is the default.
+	 */
+	public static final ValueConversion EAGER = new ValueConversion(false, Integer.MAX_VALUE);
+
+	/**
+	 * The scan only records which arguments belong to an option, they are converted when the value of the option is
+	 * read for the first time.
+	 * <p>
+	 * This only applies to options whose values are objects, single primitive values are always converted eagerly.
+	 * Values are only converted lazily when an argument array is parsed, since an
+	 * {@link de.larsgrefer.cli.source.ArgumentSource} does not keep its arguments. Errors of the parsers are thrown when
+	 * the value is read, and the argument array must not be modified until all values are read.
+	 */
+	public static final ValueConversion LAZY = new ValueConversion(true, Integer.MAX_VALUE);
+
+	private final boolean lazy;
+	private final int parallelThreshold;
+
+	private ValueConversion(boolean lazy, int parallelThreshold) {
+		this.lazy = lazy;
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	/**
+	 * Returns a conversion which converts options with at least {@code threshold} values in parallel.
+	 * <p>
+	 * The scan records the arguments of each option like {@link #LAZY} does. Once they are known, options with enough
+	 * values are converted in chunks in the {@link java.util.concurrent.ForkJoinPool#commonPool() common pool}, and the
+	 * chunks are merged in the original order. Without {@link #LAZY} this happens at the end of the parse, otherwise
+	 * on the first read. Only {@link de.larsgrefer.cli.model.ArgumentedOption#isMergeable() mergeable} options are
+	 * converted in parallel and their parsers have to be thread safe.
+	 * <p>
+	 * Converting in parallel only pays off for expensive parsers or thousands of values, see the
+	 * {@code ValueConversionBenchmark}.
+	 *
+	 * @param threshold the minimal number of values of an option to convert it in parallel
+	 * @return a conversion like this one, converting large options in parallel
+	 */
+	public ValueConversion parallel(int threshold) {
+		if (threshold < 1) {
+			throw new IllegalArgumentException("threshold must be positive: " + threshold);
+		}
+		return new ValueConversion(lazy, threshold);
+	}
+
+	public boolean isLazy() {
+		return lazy;
+	}
+
+	public boolean isParallel() {
+		return parallelThreshold != Integer.MAX_VALUE;
+	}
+
+	/**
+	 * @return the minimal number of values of an option to convert it in parallel, {@link Integer#MAX_VALUE} if the
+	 * conversion is not parallel
+	 */
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * @return whether the arguments of options are recorded by the scan instead of converted right away
+	 */
+	boolean isRecording() {
+		return lazy || isParallel();
+	}
+
+	@Override
+	public String toString() {
+		String mode = lazy ? "LAZY" : "EAGER";
+		return isParallel() ? mode + ".parallel(" + parallelThreshold + ")" : mode;
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli;
+
+import de.larsgrefer.cli.model.CommandLineOption;
+import de.larsgrefer.cli.model.SimpleArgumentedOption;
+import de.larsgrefer.cli.parser.ArgumentParser;
+import de.larsgrefer.cli.parser.ByteArgumentParser;
+import de.larsgrefer.cli.parser.CharArgumentParser;
+import de.larsgrefer.cli.parser.IntArgumentParser;
+import de.larsgrefer.cli.parser.LongArgumentParser;
+import de.larsgrefer.cli.parser.ShortArgumentParser;
+
+/**
+ * How the value of an option is stored in a {@link ParseResult}
+ *
+ * @author Lars Grefer
+ */
+enum ValueKind {
+
+	/**
+	 * The value is an object, created by
+	 * {@link de.larsgrefer.cli.model.ArgumentedOption#accumulate(java.lang.Object, java.lang.String)}
+	 */
+	OBJECT,
+	BYTE,
+	SHORT,
+	CHAR,
+	INT,
+	LONG;
+
+	/**
+	 * Single valued options with a primitive parser store their value unboxed, all others as object. Subclasses of
+	 * {@link SimpleArgumentedOption} may change how the values are accumulated, so they are stored as object as well.
+	 */
+	static ValueKind of(CommandLineOption option) {
+		if (option.getClass() != SimpleArgumentedOption.class) {
+			return OBJECT;
+		}
+		ArgumentParser<?> parser = ((SimpleArgumentedOption) option).getParser();
+		if (parser instanceof IntArgumentParser) {
+			return INT;
+		} else if (parser instanceof LongArgumentParser) {
+			return LONG;
+		} else if (parser instanceof ShortArgumentParser) {
+			return SHORT;
+		} else if (parser instanceof ByteArgumentParser) {
+			return BYTE;
+		} else if (parser instanceof CharArgumentParser) {
+			return CHAR;
+		}
+		return OBJECT;
+	}
+}
@@ -38,4 +38,14 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface CliArgumentParser {
 	Class<? extends ArgumentParser<?>> value();
+
+	/**
+	 * Whether one instance of the parser class may be shared by all fields using it.
+	 * <p>
+	 * Parsers are expected to be stateless. Set this to false for parsers with state, so every field gets its own
+	 * instance.
+	 *
+	 * @see de.larsgrefer.cli.parser.ParserRegistry
+	 */
+	boolean shared() default true;
 }
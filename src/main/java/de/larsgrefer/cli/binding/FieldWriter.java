@@ -0,0 +1,64 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.binding;
+
+/**
+ * Writes values into one specific field of target objects.
+ * <p>
+ * The primitive setters store the value without boxing when the field has the matching primitive type. Their default
+ * implementations box the value and delegate to {@link #set(Object, Object)}.
+ *
+ * @see FieldWriters#forField(java.lang.reflect.Field)
+ * @author Lars Grefer
+ */
+public interface FieldWriter {
+
+	public void set(Object target, Object value);
+
+	public default void setBoolean(Object target, boolean value) {
+		set(target, value);
+	}
+
+	public default void setByte(Object target, byte value) {
+		set(target, value);
+	}
+
+	public default void setShort(Object target, short value) {
+		set(target, value);
+	}
+
+	public default void setChar(Object target, char value) {
+		set(target, value);
+	}
+
+	public default void setInt(Object target, int value) {
+		set(target, value);
+	}
+
+	public default void setLong(Object target, long value) {
+		set(target, value);
+	}
+
+}
@@ -0,0 +1,370 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.binding;
+
+import de.larsgrefer.cli.exceptions.FieldBindingException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Factory for {@link FieldWriter}s backed by {@link MethodHandle}s.
+ * <p>
+ * The setter handle of a field is looked up once and adapted to the exact signature {@code (Object, type)void}, so
+ * every write is a single {@code invokeExact} call. Fields of the types {@code boolean}, {@code byte}, {@code short},
+ * {@code char}, {@code int} and {@code long} get writers whose primitive setters do not box.
+ *
+ * @author Lars Grefer
+ */
+public final class FieldWriters {
+
+	private FieldWriters() {
+	}
+
+	public static FieldWriter forField(Field field) {
+		field.setAccessible(true);
+
+		MethodHandle setter;
+		try {
+			setter = MethodHandles.lookup().unreflectSetter(field);
+		} catch (IllegalAccessException ex) {
+			throw new FieldBindingException("Cannot obtain a setter for field " + field, ex);
+		}
+
+		if (Modifier.isStatic(field.getModifiers())) {
+			setter = MethodHandles.dropArguments(setter, 0, Object.class);
+		}
+
+		Class<?> type = field.getType();
+		if (!type.isPrimitive()) {
+			return new ObjectWriter(field, setter.asType(MethodType.methodType(void.class, Object.class, Object.class)));
+		}
+
+		setter = setter.asType(MethodType.methodType(void.class, Object.class, type));
+		if (type == boolean.class) {
+			return new BooleanWriter(field, setter);
+		} else if (type == byte.class) {
+			return new ByteWriter(field, setter);
+		} else if (type == short.class) {
+			return new ShortWriter(field, setter);
+		} else if (type == char.class) {
+			return new CharWriter(field, setter);
+		} else if (type == int.class) {
+			return new IntWriter(field, setter);
+		} else if (type == long.class) {
+			return new LongWriter(field, setter);
+		}
+		return new ObjectWriter(field, setter.asType(MethodType.methodType(void.class, Object.class, Object.class)));
+	}
+
+	/**
+	 * Creates a writer for a field of the object referenced by the given field.
+	 * <p>
+	 * The nested object is read from {@code nestedField} on every write. If it is null, a new instance is created with
+	 * the no-arg constructor of the field type and stored in the field.
+	 *
+	 * @param nestedField the field referencing the nested object
+	 * @param writer the writer for the field of the nested object
+	 * @return a writer taking the object declaring {@code nestedField} as target
+	 */
+	public static FieldWriter nested(Field nestedField, FieldWriter writer) {
+		nestedField.setAccessible(true);
+
+		MethodHandle getter;
+		MethodHandle setter;
+		try {
+			getter = MethodHandles.lookup().unreflectGetter(nestedField);
+			setter = MethodHandles.lookup().unreflectSetter(nestedField);
+		} catch (IllegalAccessException ex) {
+			throw new FieldBindingException("Cannot access field " + nestedField, ex);
+		}
+		if (Modifier.isStatic(nestedField.getModifiers())) {
+			getter = MethodHandles.dropArguments(getter, 0, Object.class);
+			setter = MethodHandles.dropArguments(setter, 0, Object.class);
+		}
+
+		MethodHandle constructor = null;
+		try {
+			Constructor<?> noArgConstructor = nestedField.getType().getDeclaredConstructor();
+			noArgConstructor.setAccessible(true);
+			constructor = MethodHandles.lookup().unreflectConstructor(noArgConstructor)
+					.asType(MethodType.methodType(Object.class));
+		} catch (NoSuchMethodException | IllegalAccessException | RuntimeException ex) {
+			// only needed if the field is null when it is written
+		}
+
+		return new NestedWriter(
+				nestedField,
+				getter.asType(MethodType.methodType(Object.class, Object.class)),
+				setter.asType(MethodType.methodType(void.class, Object.class, Object.class)),
+				constructor,
+				writer
+		);
+	}
+
+	static FieldBindingException bindingFailed(Field field, Throwable cause) {
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		return new FieldBindingException("Cannot write field " + field, cause);
+	}
+
+	private static abstract class HandleWriter implements FieldWriter {
+
+		final Field field;
+		final MethodHandle setter;
+
+		HandleWriter(Field field, MethodHandle setter) {
+			this.field = field;
+			this.setter = setter;
+		}
+
+		@Override
+		public String toString() {
+			return getClass().getSimpleName() + "[" + field + "]";
+		}
+	}
+
+	private static final class ObjectWriter extends HandleWriter {
+
+		ObjectWriter(Field field, MethodHandle setter) {
+			super(field, setter);
+		}
+
+		@Override
+		public void set(Object target, Object value) {
+			try {
+				setter.invokeExact(target, value);
+			} catch (Throwable t) {
+				throw bindingFailed(field, t);
+			}
+		}
+	}
+
+	private static final class BooleanWriter extends HandleWriter {
+
+		BooleanWriter(Field field, MethodHandle setter) {
+			super(field, setter);
+		}
+
+		@Override
+		public void set(Object target, Object value) {
+			setBoolean(target, (Boolean) value);
+		}
+
+		@Override
+		public void setBoolean(Object target, boolean value) {
+			try {
+				setter.invokeExact(target, value);
+			} catch (Throwable t) {
+				throw bindingFailed(field, t);
+			}
+		}
+	}
+
+	private static final class ByteWriter extends HandleWriter {
+
+		ByteWriter(Field field, MethodHandle setter) {
+			super(field, setter);
+		}
+
+		@Override
+		public void set(Object target, Object value) {
+			setByte(target, (Byte) value);
+		}
+
+		@Override
+		public void setByte(Object target, byte value) {
+			try {
+				setter.invokeExact(target, value);
+			} catch (Throwable t) {
+				throw bindingFailed(field, t);
+			}
+		}
+	}
+
+	private static final class ShortWriter extends HandleWriter {
+
+		ShortWriter(Field field, MethodHandle setter) {
+			super(field, setter);
+		}
+
+		@Override
+		public void set(Object target, Object value) {
+			setShort(target, (Short) value);
+		}
+
+		@Override
+		public void setShort(Object target, short value) {
+			try {
+				setter.invokeExact(target, value);
+			} catch (Throwable t) {
+				throw bindingFailed(field, t);
+			}
+		}
+	}
+
+	private static final class CharWriter extends HandleWriter {
+
+		CharWriter(Field field, MethodHandle setter) {
+			super(field, setter);
+		}
+
+		@Override
+		public void set(Object target, Object value) {
+			setChar(target, (Character) value);
+		}
+
+		@Override
+		public void setChar(Object target, char value) {
+			try {
+				setter.invokeExact(target, value);
+			} catch (Throwable t) {
+				throw bindingFailed(field, t);
+			}
+		}
+	}
+
+	private static final class IntWriter extends HandleWriter {
+
+		IntWriter(Field field, MethodHandle setter) {
+			super(field, setter);
+		}
+
+		@Override
+		public void set(Object target, Object value) {
+			setInt(target, (Integer) value);
+		}
+
+		@Override
+		public void setInt(Object target, int value) {
+			try {
+				setter.invokeExact(target, value);
+			} catch (Throwable t) {
+				throw bindingFailed(field, t);
+			}
+		}
+	}
+
+	private static final class LongWriter extends HandleWriter {
+
+		LongWriter(Field field, MethodHandle setter) {
+			super(field, setter);
+		}
+
+		@Override
+		public void set(Object target, Object value) {
+			setLong(target, (Long) value);
+		}
+
+		@Override
+		public void setLong(Object target, long value) {
+			try {
+				setter.invokeExact(target, value);
+			} catch (Throwable t) {
+				throw bindingFailed(field, t);
+			}
+		}
+	}
+
+	private static final class NestedWriter implements FieldWriter {
+
+		private final Field field;
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+		private final MethodHandle constructor;
+		private final FieldWriter writer;
+
+		NestedWriter(Field field, MethodHandle getter, MethodHandle setter, MethodHandle constructor, FieldWriter writer) {
+			this.field = field;
+			this.getter = getter;
+			this.setter = setter;
+			this.constructor = constructor;
+			this.writer = writer;
+		}
+
+		private Object nestedTarget(Object target) {
+			try {
+				Object nested = (Object) getter.invokeExact(target);
+				if (nested == null) {
+					if (constructor == null) {
+						throw new FieldBindingException(field + " is null and " + field.getType().getName() + " has no no-arg constructor", null);
+					}
+					nested = (Object) constructor.invokeExact();
+					setter.invokeExact(target, nested);
+				}
+				return nested;
+			} catch (Throwable t) {
+				throw bindingFailed(field, t);
+			}
+		}
+
+		@Override
+		public void set(Object target, Object value) {
+			writer.set(nestedTarget(target), value);
+		}
+
+		@Override
+		public void setBoolean(Object target, boolean value) {
+			writer.setBoolean(nestedTarget(target), value);
+		}
+
+		@Override
+		public void setByte(Object target, byte value) {
+			writer.setByte(nestedTarget(target), value);
+		}
+
+		@Override
+		public void setShort(Object target, short value) {
+			writer.setShort(nestedTarget(target), value);
+		}
+
+		@Override
+		public void setChar(Object target, char value) {
+			writer.setChar(nestedTarget(target), value);
+		}
+
+		@Override
+		public void setInt(Object target, int value) {
+			writer.setInt(nestedTarget(target), value);
+		}
+
+		@Override
+		public void setLong(Object target, long value) {
+			writer.setLong(nestedTarget(target), value);
+		}
+
+		@Override
+		public String toString() {
+			return "NestedWriter[" + field + " -> " + writer + "]";
+		}
+	}
+}
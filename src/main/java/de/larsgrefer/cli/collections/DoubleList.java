@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.collections;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of double values which does not box its elements
+ *
+ * @author Lars Grefer
+ */
+public final class DoubleList {
+
+	private static final double[] EMPTY = new double[0];
+
+	private double[] elements;
+	private int size;
+
+	public DoubleList() {
+		this.elements = EMPTY;
+	}
+
+	public DoubleList(int initialCapacity) {
+		this.elements = initialCapacity > 0 ? new double[initialCapacity] : EMPTY;
+	}
+
+	public void add(double value) {
+		if (size == elements.length) {
+			elements = Arrays.copyOf(elements, Math.max(8, size + (size >> 1)));
+		}
+		elements[size++] = value;
+	}
+
+	/**
+	 * Appends all elements of the given list
+	 *
+	 * @param other the elements to append
+	 */
+	public void addAll(DoubleList other) {
+		if (size + other.size > elements.length) {
+			elements = Arrays.copyOf(elements, Math.max(size + other.size, size + (size >> 1)));
+		}
+		System.arraycopy(other.elements, 0, elements, size, other.size);
+		size += other.size;
+	}
+
+	public double get(int index) {
+		if (index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return elements[index];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return a new array containing exactly the elements of this list
+	 */
+	public double[] toArray() {
+		return size == elements.length ? elements.clone() : Arrays.copyOf(elements, size);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof DoubleList)) {
+			return false;
+		}
+		DoubleList other = (DoubleList) obj;
+		if (size != other.size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (Double.compare(elements[i], other.elements[i]) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int i = 0; i < size; i++) {
+			hash = 31 * hash + Double.hashCode(elements[i]);
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+}
@@ -31,7 +31,7 @@ package de.larsgrefer.cli.exceptions;
 public class DuplicateOptionException extends Exception {
 
 	public DuplicateOptionException(String string) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		super(string);
 	}
 
 	
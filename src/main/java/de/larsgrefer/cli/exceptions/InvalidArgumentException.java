@@ -0,0 +1,134 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 lgrefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package de.larsgrefer.cli.exceptions;
+
+/**
+ * A problem with the arguments, collected by {@link de.larsgrefer.cli.ParserSpec#parseCollectingErrors(java.lang.String[])}
+ * or {@link de.larsgrefer.cli.ArgsHandler#fillOptionWithArgsCollectingErrors(java.lang.String[])}
+ * <p>
+ * These exceptions are created for every rejected argument, so they capture no stack trace and build their message
+ * only when it is asked for.
+ *
+ * @author lgrefer
+ */
+public class InvalidArgumentException extends Exception {
+
+	public enum Reason {
+
+		/**
+		 * The argument declares an option which does not exist
+		 */
+		UNKNOWN_OPTION,
+		/**
+		 * The argument is an abbreviation of several long names
+		 */
+		AMBIGUOUS_OPTION,
+		/**
+		 * The argument is a value of an option which does not take any
+		 */
+		NO_ARGUMENT_ALLOWED,
+		/**
+		 * The argument is a value which can not be parsed by the parser of its option
+		 */
+		INVALID_VALUE,
+		/**
+		 * A required option is not declared
+		 */
+		MISSING_REQUIRED_OPTION,
+		/**
+		 * Two mutually exclusive options are declared
+		 */
+		EXCLUSIVE_OPTIONS,
+		/**
+		 * An option is declared without an option it depends on
+		 */
+		MISSING_DEPENDENCY
+	}
+
+	private final Reason reason;
+	private final int index;
+	private final String argument;
+	private final String option;
+	private final String detail;
+
+	/**
+	 * @param reason the kind of the problem
+	 * @param index the index of the argument, -1 for problems of the whole command line
+	 * @param argument the argument, may be null
+	 * @param option the option the argument belongs to, the unknown option or the option violating a constraint
+	 * @param detail a description of the problem, the candidates of an ambiguous option or the other option of a
+	 * constraint, may be null
+	 * @param cause the exception thrown for the argument, may be null
+	 */
+	public InvalidArgumentException(Reason reason, int index, String argument, String option, String detail, Throwable cause) {
+		super(null, cause, false, false);
+		this.reason = reason;
+		this.index = index;
+		this.argument = argument;
+		this.option = option;
+		this.detail = detail;
+	}
+
+	public Reason getReason() {
+		return reason;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public String getArgument() {
+		return argument;
+	}
+
+	public String getOption() {
+		return option;
+	}
+
+	@Override
+	public String getMessage() {
+		switch (reason) {
+			case UNKNOWN_OPTION:
+				return "Unknown Option " + option + " at argument " + index;
+			case AMBIGUOUS_OPTION:
+				return "Ambiguous Option " + option + " at argument " + index + ", could be " + detail;
+			case NO_ARGUMENT_ALLOWED:
+				return "No arguments allowed for Option " + option + ", got " + argument + " at argument " + index;
+			case MISSING_REQUIRED_OPTION:
+				return "Missing required Option " + option;
+			case EXCLUSIVE_OPTIONS:
+				return "Options " + option + " and " + detail + " can not be used together";
+			case MISSING_DEPENDENCY:
+				return "Option " + option + " requires Option " + detail;
+			default:
+				String message = "Invalid value " + argument + " for Option " + option + " at argument " + index;
+				if (detail != null) {
+					return message + ": " + detail;
+				}
+				return getCause() != null ? message + ": " + getCause().getMessage() : message;
+		}
+	}
+}
@@ -33,5 +33,9 @@ public class ParserInstantiationException extends RuntimeException {
 	public ParserInstantiationException(Exception ex) {
 		super(ex);
 	}
+
+	public ParserInstantiationException(String string, Throwable cause) {
+		super(string, cause);
+	}
 	
 }
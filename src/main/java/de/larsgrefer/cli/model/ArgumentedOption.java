@@ -26,8 +26,17 @@ package de.larsgrefer.cli.model;
 
 import com.google.common.base.Objects;
 import de.larsgrefer.cli.parser.ArgumentParser;
+import java.util.function.Supplier;
 
 /**
+ * An option which takes arguments.
+ * <p>
+ * Subclasses implement {@link #accumulate(java.lang.Object, java.lang.String)}, which combines an argument with a
+ * value without changing the option, so one instance can be shared by concurrent parses. Subclasses which only
+ * override {@link #addValue(java.lang.String)}, as all options had to before {@code accumulate} existed, still work:
+ * their arguments are added by calling {@code addValue} on the option, which temporarily holds the value being
+ * accumulated. Such options are {@link #isStateful() stateful} and must not be filled while they are parsed by another
+ * thread.
  *
  * @author Lars Grefer
  * @param <I>
@@ -35,10 +44,26 @@ import de.larsgrefer.cli.parser.ArgumentParser;
  */
 public abstract class ArgumentedOption<I,O> extends CommandLineOption<O> {
 
+	/**
+	 * Whether a class overrides {@link #addValue(java.lang.String)}
+	 */
+	private static final ClassValue<Boolean> OVERRIDES_ADD_VALUE = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			try {
+				return type.getMethod("addValue", String.class).getDeclaringClass() != ArgumentedOption.class;
+			} catch (NoSuchMethodException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+	};
+
 	protected O value;
 
 	ArgumentParser<I> parser;
 
+	private volatile Supplier<? extends O> valueSupplier;
+
 	public ArgumentedOption() {
 	}
 
@@ -49,11 +74,33 @@ public abstract class ArgumentedOption<I,O> extends CommandLineOption<O> {
 	
 	@Override
 	public O getValue() {
-		return isSet() ? value : null;
+		return isSet() ? resolveValue() : null;
 	}
 
 	public void setValue(O newValue) {
 		this.value = newValue;
+		this.valueSupplier = null;
+	}
+
+	/**
+	 * Sets a supplier which computes the value when it is read for the first time.
+	 * <p>
+	 * The supplier is called at most once by this option, but may be called concurrently by several threads if the
+	 * option is shared, so it should memoize its result.
+	 *
+	 * @param valueSupplier the supplier of the value
+	 */
+	public void setValueSupplier(Supplier<? extends O> valueSupplier) {
+		this.valueSupplier = valueSupplier;
+	}
+
+	private O resolveValue() {
+		Supplier<? extends O> supplier = valueSupplier;
+		if (supplier != null) {
+			value = supplier.get();
+			valueSupplier = null;
+		}
+		return value;
 	}
 
 	public ArgumentParser<I> getParser() {
@@ -64,12 +111,136 @@ public abstract class ArgumentedOption<I,O> extends CommandLineOption<O> {
 		this.parser = parser;
 	}
 
-	public abstract void addValue(String valueString);
+	/**
+	 * Adds the given argument to the value of this option
+	 *
+	 * @param valueString the argument
+	 */
+	public void addValue(String valueString) {
+		value = accumulate(resolveValue(), valueString);
+	}
+
+	/**
+	 * Parses the given argument and combines it with the current value, without changing the state of this option.
+	 * <p>
+	 * This allows one option instance to be shared by concurrent parses which keep their values elsewhere, as long as
+	 * the parser is stateless. By default the argument is added with {@link #addValue(java.lang.String)}, for
+	 * subclasses which only override that.
+	 *
+	 * @param current the current value, null for the first argument
+	 * @param valueString the argument
+	 * @return the new value
+	 * @throws UnsupportedOperationException if the subclass overrides neither this method nor {@code addValue}
+	 */
+	public O accumulate(O current, String valueString) {
+		if (!isStateful()) {
+			throw new UnsupportedOperationException(getClass().getName() + " overrides neither accumulate nor addValue");
+		}
+		return replayAddValue(current, valueString);
+	}
+
+	/**
+	 * Returns whether the arguments of this option are added with an overridden {@link #addValue(java.lang.String)},
+	 * which changes the state of the option while the argument is added.
+	 *
+	 * @return true if a subclass overrides {@code addValue}
+	 */
+	public final boolean isStateful() {
+		return OVERRIDES_ADD_VALUE.get(getClass());
+	}
+
+	/**
+	 * Adds an argument during a parse: with {@link #addValue(java.lang.String)} if this option is
+	 * {@link #isStateful() stateful}, with {@link #accumulate(java.lang.Object, java.lang.CharSequence, int)}
+	 * otherwise.
+	 *
+	 * @param current the current value, null for the first argument
+	 * @param value the argument
+	 * @param expectedValues the number of arguments which follow the declaration of this option, including this one, or
+	 * 0 if unknown
+	 * @return the new value
+	 */
+	public final O accumulateArgument(O current, CharSequence value, int expectedValues) {
+		return isStateful()
+				? replayAddValue(current, value.toString())
+				: accumulate(current, value, expectedValues);
+	}
+
+	/**
+	 * Calls {@link #addValue(java.lang.String)} with the given value in place of the value of this option
+	 */
+	private synchronized O replayAddValue(O current, String valueString) {
+		O saved = value;
+		Supplier<? extends O> savedSupplier = valueSupplier;
+		value = current;
+		valueSupplier = null;
+		try {
+			addValue(valueString);
+			return value;
+		} finally {
+			value = saved;
+			valueSupplier = savedSupplier;
+		}
+	}
+
+	/**
+	 * Like {@link #accumulate(java.lang.Object, java.lang.String)}, with a hint how many values will be added.
+	 * <p>
+	 * Options collecting their values can use the hint to size their collection when the first value is added.
+	 *
+	 * @param current the current value, null for the first argument
+	 * @param valueString the argument
+	 * @param expectedValues the number of arguments which follow the declaration of this option, including this one, or
+	 * 0 if unknown
+	 * @return the new value
+	 */
+	public O accumulate(O current, String valueString, int expectedValues) {
+		return accumulate(current, valueString);
+	}
+
+	/**
+	 * Like {@link #accumulate(java.lang.Object, java.lang.String, int)}, for arguments which are not available as
+	 * {@link String}.
+	 * <p>
+	 * The argument may be a view of a reused buffer and must not be kept after this call. Options which can parse it
+	 * directly should override this method, by default it is converted to a {@link String}.
+	 *
+	 * @param current the current value, null for the first argument
+	 * @param value the argument
+	 * @param expectedValues the number of arguments which follow the declaration of this option, including this one, or
+	 * 0 if unknown
+	 * @return the new value
+	 */
+	public O accumulate(O current, CharSequence value, int expectedValues) {
+		return accumulate(current, value.toString(), expectedValues);
+	}
+
+	/**
+	 * Returns whether {@link #merge(java.lang.Object, java.lang.Object)} is supported, which allows the arguments of
+	 * this option to be converted in parallel.
+	 *
+	 * @return false by default
+	 */
+	public boolean isMergeable() {
+		return false;
+	}
+
+	/**
+	 * Combines two values which were accumulated independently from consecutive runs of arguments.
+	 *
+	 * @param left the value of the first arguments, may be null
+	 * @param right the value of the arguments following them, may be null
+	 * @return the value of all arguments, as if they were accumulated one after another
+	 * @throws UnsupportedOperationException if this option is not {@link #isMergeable() mergeable}
+	 */
+	public O merge(O left, O right) {
+		throw new UnsupportedOperationException(getClass().getName() + " can not merge values");
+	}
 
 	@Override
 	protected Objects.ToStringHelper getToStringHelper() {
 		return super.getToStringHelper()
-				.add("value", value)
+				.add("value", valueSupplier != null ? valueSupplier : value)
 				.add("parser", parser);
 	}
 	
@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.model;
+
+import de.larsgrefer.cli.collections.DoubleList;
+import de.larsgrefer.cli.parser.ArgumentParser;
+import de.larsgrefer.cli.parser.DoubleArgumentParser;
+
+/**
+ * An option collecting any number of double values into a {@link DoubleList}, without boxing them.
+ * <p>
+ * Parsers which are no {@link DoubleArgumentParser} are supported, but box every value.
+ *
+ * @author Lars Grefer
+ */
+public class DoubleListOption extends ArgumentedOption<Double, DoubleList> {
+
+	public DoubleListOption() {
+	}
+
+	public DoubleListOption(char name, String longName, boolean required, String description, ArgumentParser<Double> parser) {
+		super(name, longName, required, description, parser);
+	}
+
+	@Override
+	public boolean isMergeable() {
+		return true;
+	}
+
+	@Override
+	public DoubleList merge(DoubleList left, DoubleList right) {
+		if (left == null) {
+			return right;
+		} else if (right != null) {
+			left.addAll(right);
+		}
+		return left;
+	}
+
+	@Override
+	public DoubleList accumulate(DoubleList current, String valueString) {
+		return accumulate(current, valueString, 0);
+	}
+
+	@Override
+	public DoubleList accumulate(DoubleList current, String valueString, int expectedValues) {
+		return accumulate(current, (CharSequence) valueString, expectedValues);
+	}
+
+	@Override
+	public DoubleList accumulate(DoubleList current, CharSequence value, int expectedValues) {
+		if (current == null) {
+			current = new DoubleList(expectedValues);
+		}
+		if (parser instanceof DoubleArgumentParser) {
+			current.add(((DoubleArgumentParser) parser).parseDouble(value));
+		} else {
+			current.add(parser.parse(value.toString()));
+		}
+		return current;
+	}
+}
@@ -92,14 +92,30 @@ public abstract class KeyValueOption<K,V> extends ArgumentedOption<String,Map<K,
 	}
 	
 	@Override
-	public void addValue(String s)
+	public Map<K, V> accumulate(Map<K, V> current, String s)
 	{
-		if(value == null)
-			value = newMapSupplier.get();
+		if(current == null)
+			current = newMapSupplier.get();
 		int index = s.indexOf(separator);
 		K newKey = keyParser.apply(s.substring(0, index));
 		V newValue = valueParser.apply(s.substring(index+1));
-		value.put(newKey, newValue);
+		current.put(newKey, newValue);
+		return current;
+	}
+
+	@Override
+	public boolean isMergeable() {
+		return true;
+	}
+
+	@Override
+	public Map<K, V> merge(Map<K, V> left, Map<K, V> right) {
+		if (left == null) {
+			return right;
+		} else if (right != null) {
+			left.putAll(right);
+		}
+		return left;
 	}
 
 	@Override
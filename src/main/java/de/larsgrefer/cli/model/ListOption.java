@@ -62,10 +62,26 @@ public class ListOption<T> extends ArgumentedOption<T,List<T>> {
 	}
 
 	@Override
-	public void addValue(String valueString) {
-		if(value == null)
-			value = newListSupplier.get();
-		value.add(parser.parse(valueString));
+	public List<T> accumulate(List<T> current, String valueString) {
+		if(current == null)
+			current = newListSupplier.get();
+		current.add(parser.parse(valueString));
+		return current;
+	}
+
+	@Override
+	public boolean isMergeable() {
+		return true;
+	}
+
+	@Override
+	public List<T> merge(List<T> left, List<T> right) {
+		if (left == null) {
+			return right;
+		} else if (right != null) {
+			left.addAll(right);
+		}
+		return left;
 	}
 
 	@Override
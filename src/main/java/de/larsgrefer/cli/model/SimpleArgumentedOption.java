@@ -41,7 +41,17 @@ public class SimpleArgumentedOption<T> extends ArgumentedOption<T, T>{
 	}
 	
 	@Override
-	public void addValue(String valueString) {
-		value = getParser().parse(valueString);
+	public T accumulate(T current, String valueString) {
+		return getParser().parse(valueString);
+	}
+
+	@Override
+	public boolean isMergeable() {
+		return true;
+	}
+
+	@Override
+	public T merge(T left, T right) {
+		return right != null ? right : left;
 	}
 }
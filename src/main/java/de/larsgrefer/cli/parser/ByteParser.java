@@ -30,11 +30,25 @@ package de.larsgrefer.cli.parser;
  * @see Byte#decode(java.lang.String) 
  * @author Lars Grefer
  */
-public class ByteParser implements ArgumentParser<Byte>{
+public class ByteParser implements ByteArgumentParser{
 
 	@Override
-	public Byte parse(String arg) {
-		return Byte.decode(arg);
+	public byte parseByte(CharSequence arg) {
+		return (byte) NumberDecoder.decode(arg, Byte.MIN_VALUE, Byte.MAX_VALUE);
+	}
+
+	/**
+	 * Parses a range of the argument without allocating.
+	 *
+	 * @param arg the argument
+	 * @param start the index of the first char of the number
+	 * @param end the index after the last char of the number
+	 * @param errors receives the error, if the range is no byte value
+	 * @return the value, meaningless if an error was reported
+	 */
+	@Override
+	public byte parseByte(CharSequence arg, int start, int end, ErrorChannel errors) {
+		return (byte) NumberDecoder.decode(arg, start, end, Byte.MIN_VALUE, Byte.MAX_VALUE, errors);
 	}
 	
 }
@@ -32,10 +32,10 @@ package de.larsgrefer.cli.parser;
  * @see String#charAt(int) 
  * @author lgrefer
  */
-public class CharParser implements ArgumentParser<Character>{
+public class CharParser implements CharArgumentParser{
 
 	@Override
-	public Character parse(String arg) {
+	public char parseChar(CharSequence arg) {
 		return arg.charAt(0);
 	}
 	
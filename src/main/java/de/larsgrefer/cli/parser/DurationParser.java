@@ -0,0 +1,78 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package de.larsgrefer.cli.parser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parser for command line arguments which are representing a duration, like {@code 500ms}, {@code 30s} or {@code 2h}
+ * <p>
+ * The units are {@code ns}, {@code us}, {@code ms}, {@code s}, {@code m}, {@code h} and {@code d}. The duration is
+ * returned in the unit of the parser, milliseconds by default, which is also assumed for arguments without unit.
+ *
+ * @author Lars Grefer
+ */
+public class DurationParser implements LongArgumentParser {
+
+	private final TimeUnit unit;
+
+	public DurationParser() {
+		this(TimeUnit.MILLISECONDS);
+	}
+
+	public DurationParser(TimeUnit unit) {
+		this.unit = unit;
+	}
+
+	public TimeUnit getUnit() {
+		return unit;
+	}
+
+	@Override
+	public long parseLong(CharSequence arg) {
+		ErrorChannel errors = ErrorChannel.forCurrentThread();
+		long duration = parseLong(arg, 0, arg.length(), errors);
+		if (errors.hasError()) {
+			throw errors.toNumberFormatException();
+		}
+		return duration;
+	}
+
+	/**
+	 * Parses a range of the argument without allocating.
+	 *
+	 * @param arg the argument
+	 * @param start the index of the first char of the duration
+	 * @param end the index after the last char of the duration
+	 * @param errors receives the error, if the range is no duration
+	 * @return the duration in the unit of this parser, meaningless if an error was reported
+	 */
+	@Override
+	public long parseLong(CharSequence arg, int start, int end, ErrorChannel errors) {
+		return NumberDecoder.decodeDuration(arg, start, end, unit, errors);
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package de.larsgrefer.cli.parser;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parser for command line arguments which are representing a constant of an enum
+ * <p>
+ * The constants are looked up by their name in a table built once per parser. If no constant has exactly the given
+ * name, the name is compared ignoring case, as long as this is unambiguous.
+ *
+ * @author Lars Grefer
+ * @param <E> the enum type
+ */
+public class EnumParser<E extends Enum<E>> implements ArgumentParser<E> {
+
+	private final Class<E> enumType;
+	private final Map<String, E> constants = new HashMap<>();
+	private final Map<String, E> lowerCaseConstants = new HashMap<>();
+
+	public EnumParser(Class<E> enumType) {
+		this.enumType = enumType;
+
+		Set<String> ambiguous = new HashSet<>();
+		for (E constant : enumType.getEnumConstants()) {
+			constants.put(constant.name(), constant);
+			String lowerCaseName = constant.name().toLowerCase(Locale.ROOT);
+			if (lowerCaseConstants.put(lowerCaseName, constant) != null) {
+				ambiguous.add(lowerCaseName);
+			}
+		}
+		lowerCaseConstants.keySet().removeAll(ambiguous);
+	}
+
+	@Override
+	public E parse(String arg) {
+		E constant = constants.get(arg);
+		if (constant == null) {
+			constant = lowerCaseConstants.get(arg.toLowerCase(Locale.ROOT));
+		}
+		if (constant == null) {
+			throw new IllegalArgumentException("No constant " + arg + " of " + enumType.getName()
+					+ ", expected one of " + Arrays.toString(enumType.getEnumConstants()));
+		}
+		return constant;
+	}
+
+}
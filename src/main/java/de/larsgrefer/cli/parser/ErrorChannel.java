@@ -0,0 +1,155 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package de.larsgrefer.cli.parser;
+
+/**
+ * Receives the first error of a parse operation instead of an exception.
+ * <p>
+ * Reporting an error only stores the constant reason, the input and the position, so failing inputs cost no more
+ * than valid ones. A message or an exception is only built when it is asked for. A channel is not thread safe, every
+ * thread has its own channel at {@link #forCurrentThread()}.
+ *
+ * @author Lars Grefer
+ */
+public final class ErrorChannel {
+
+	public static final String EMPTY = "Zero length string";
+	public static final String MISPLACED_SIGN = "Sign character in wrong position";
+	public static final String NO_DIGITS = "No digits";
+	public static final String INVALID_DIGIT = "Invalid digit";
+	public static final String OUT_OF_RANGE = "Value out of range";
+	public static final String UNKNOWN_UNIT = "Unknown unit";
+	public static final String INVALID_VALUE = "Invalid value";
+
+	private static final ThreadLocal<ErrorChannel> CURRENT = ThreadLocal.withInitial(ErrorChannel::new);
+
+	private String reason;
+	private CharSequence input;
+	private int start;
+	private int end;
+	private int position;
+	private Throwable cause;
+
+	/**
+	 * @return the cleared channel of the current thread
+	 */
+	public static ErrorChannel forCurrentThread() {
+		ErrorChannel errors = CURRENT.get();
+		errors.clear();
+		return errors;
+	}
+
+	/**
+	 * Records an error, unless an error is recorded already.
+	 *
+	 * @param reason the reason, one of the constants of this class
+	 * @param input the input which contains the erroneous value
+	 * @param start the index of the first char of the value
+	 * @param end the index after the last char of the value
+	 * @param position the index of the erroneous char
+	 */
+	public void report(String reason, CharSequence input, int start, int end, int position) {
+		report(reason, input, start, end, position, null);
+	}
+
+	/**
+	 * Records an error caused by an exception, unless an error is recorded already.
+	 *
+	 * @param reason the reason, one of the constants of this class
+	 * @param input the input which contains the erroneous value
+	 * @param start the index of the first char of the value
+	 * @param end the index after the last char of the value
+	 * @param position the index of the erroneous char
+	 * @param cause the exception thrown for the value, may be null
+	 */
+	public void report(String reason, CharSequence input, int start, int end, int position, Throwable cause) {
+		if (this.reason == null) {
+			this.reason = reason;
+			this.input = input;
+			this.start = start;
+			this.end = end;
+			this.position = position;
+			this.cause = cause;
+		}
+	}
+
+	public boolean hasError() {
+		return reason != null;
+	}
+
+	public String getReason() {
+		return reason;
+	}
+
+	/**
+	 * @return the exception which caused the error or null
+	 */
+	public Throwable getCause() {
+		return cause;
+	}
+
+	/**
+	 * @return the erroneous value or null, if no error is recorded
+	 */
+	public CharSequence getValue() {
+		return reason != null ? input.subSequence(start, end) : null;
+	}
+
+	/**
+	 * @return the index of the erroneous char, relative to the start of the value
+	 */
+	public int getPosition() {
+		return position - start;
+	}
+
+	public void clear() {
+		reason = null;
+		input = null;
+		cause = null;
+	}
+
+	public String getMessage() {
+		if (reason == null) {
+			return null;
+		}
+		if (cause != null && cause.getMessage() != null) {
+			return reason + " \"" + getValue() + "\": " + cause.getMessage();
+		}
+		return reason + " at index " + getPosition() + " of \"" + getValue() + "\"";
+	}
+
+	public NumberFormatException toNumberFormatException() {
+		if (cause instanceof NumberFormatException) {
+			return (NumberFormatException) cause;
+		}
+		return new NumberFormatException(getMessage());
+	}
+
+	@Override
+	public String toString() {
+		return reason != null ? getMessage() : "no error";
+	}
+}
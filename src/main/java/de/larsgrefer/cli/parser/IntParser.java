@@ -28,11 +28,25 @@ package de.larsgrefer.cli.parser;
  *
  * @author lgrefer
  */
-public class IntParser implements ArgumentParser<Integer> {
+public class IntParser implements IntArgumentParser {
 
 	@Override
-	public Integer parse(String arg) {
-		return Integer.decode(arg);
+	public int parseInt(CharSequence arg) {
+		return (int) NumberDecoder.decode(arg, Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Parses a range of the argument without allocating.
+	 *
+	 * @param arg the argument
+	 * @param start the index of the first char of the number
+	 * @param end the index after the last char of the number
+	 * @param errors receives the error, if the range is no int value
+	 * @return the value, meaningless if an error was reported
+	 */
+	@Override
+	public int parseInt(CharSequence arg, int start, int end, ErrorChannel errors) {
+		return (int) NumberDecoder.decode(arg, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE, errors);
 	}
 	
 }
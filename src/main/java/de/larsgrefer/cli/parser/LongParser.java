@@ -28,11 +28,25 @@ package de.larsgrefer.cli.parser;
  *
  * @author lgrefer
  */
-public class LongParser implements ArgumentParser<Long> {
+public class LongParser implements LongArgumentParser {
 
 	@Override
-	public Long parse(String arg) {
-		return Long.decode(arg);
+	public long parseLong(CharSequence arg) {
+		return NumberDecoder.decode(arg, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Parses a range of the argument without allocating.
+	 *
+	 * @param arg the argument
+	 * @param start the index of the first char of the number
+	 * @param end the index after the last char of the number
+	 * @param errors receives the error, if the range is no long value
+	 * @return the value, meaningless if an error was reported
+	 */
+	@Override
+	public long parseLong(CharSequence arg, int start, int end, ErrorChannel errors) {
+		return NumberDecoder.decode(arg, start, end, Long.MIN_VALUE, Long.MAX_VALUE, errors);
 	}
 
 }
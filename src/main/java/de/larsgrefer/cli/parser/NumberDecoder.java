@@ -0,0 +1,248 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package de.larsgrefer.cli.parser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes integral numbers like {@link Long#decode(java.lang.String)} does, but without boxing the result.
+ * <p>
+ * Accepts an optional sign followed by decimal digits, {@code 0x}, {@code 0X} or {@code #} and hexadecimal digits, or
+ * {@code 0} and octal digits. The digits are read from the given range of the {@link CharSequence} directly, nothing
+ * is allocated. Errors are reported to an {@link ErrorChannel}, in that case the returned value is meaningless.
+ *
+ * @author Lars Grefer
+ */
+final class NumberDecoder {
+
+	private static final long[] SIZE_FACTORS = {1L, 1L << 10, 1L << 20, 1L << 30, 1L << 40, 1L << 50};
+	private static final String SIZE_UNITS = "bkmgtp";
+
+	private NumberDecoder() {
+	}
+
+	/**
+	 * @throws NumberFormatException if the argument is no number between min and max
+	 */
+	static long decode(CharSequence arg, long min, long max) {
+		ErrorChannel errors = ErrorChannel.forCurrentThread();
+		long value = decode(arg, 0, arg.length(), min, max, errors);
+		if (errors.hasError()) {
+			throw errors.toNumberFormatException();
+		}
+		return value;
+	}
+
+	static long decode(CharSequence arg, int start, int end, long min, long max, ErrorChannel errors) {
+		if (start >= end) {
+			errors.report(ErrorChannel.EMPTY, arg, start, end, start);
+			return 0;
+		}
+
+		int index = start;
+		boolean negative = false;
+		char first = arg.charAt(index);
+		if (first == '-') {
+			negative = true;
+			index++;
+		} else if (first == '+') {
+			index++;
+		}
+
+		int radix = 10;
+		if (index < end && arg.charAt(index) == '#') {
+			index++;
+			radix = 16;
+		} else if (index + 1 < end && arg.charAt(index) == '0') {
+			char second = arg.charAt(index + 1);
+			if (second == 'x' || second == 'X') {
+				index += 2;
+				radix = 16;
+			} else {
+				index++;
+				radix = 8;
+			}
+		}
+
+		if (index < end && (arg.charAt(index) == '-' || arg.charAt(index) == '+')) {
+			errors.report(ErrorChannel.MISPLACED_SIGN, arg, start, end, index);
+			return 0;
+		}
+		return digits(arg, start, index, end, radix, negative, min, max, errors);
+	}
+
+	/**
+	 * Decodes a decimal number followed by an optional size unit: {@code b}, {@code k}, {@code m}, {@code g},
+	 * {@code t} or {@code p}, optionally followed by {@code b} or {@code ib}, ignoring case. The units are powers of
+	 * 1024.
+	 *
+	 * @return the size in bytes
+	 */
+	static long decodeSize(CharSequence arg, int start, int end, ErrorChannel errors) {
+		int unitStart = unitStart(arg, start, end);
+		long factor = 0;
+		int unitLength = end - unitStart;
+		if (unitLength == 0) {
+			factor = 1;
+		} else {
+			int unit = SIZE_UNITS.indexOf(Character.toLowerCase(arg.charAt(unitStart)));
+			if (unit >= 0 && (unitLength == 1
+					|| (unit > 0 && regionMatches(arg, unitStart + 1, end, "b"))
+					|| (unit > 0 && regionMatches(arg, unitStart + 1, end, "ib")))) {
+				factor = SIZE_FACTORS[unit];
+			}
+		}
+		return scaled(arg, start, unitStart, end, factor, errors);
+	}
+
+	/**
+	 * Decodes a decimal number followed by an optional duration unit: {@code ns}, {@code us}, {@code ms}, {@code s},
+	 * {@code m}, {@code h} or {@code d}. Without unit the number is taken in the target unit.
+	 *
+	 * @param target the unit of the returned value, finer units are truncated
+	 * @return the duration in the target unit
+	 */
+	static long decodeDuration(CharSequence arg, int start, int end, TimeUnit target, ErrorChannel errors) {
+		int unitStart = unitStart(arg, start, end);
+		TimeUnit unit = unitStart == end ? target : durationUnit(arg, unitStart, end);
+		if (unit == null) {
+			return scaled(arg, start, unitStart, end, 0, errors);
+		}
+		if (unit.compareTo(target) >= 0) {
+			return scaled(arg, start, unitStart, end, unit.toNanos(1) / target.toNanos(1), errors);
+		}
+		long value = scaled(arg, start, unitStart, end, 1, errors);
+		return value / (target.toNanos(1) / unit.toNanos(1));
+	}
+
+	private static TimeUnit durationUnit(CharSequence arg, int start, int end) {
+		switch (end - start) {
+			case 1:
+				switch (arg.charAt(start)) {
+					case 's':
+						return TimeUnit.SECONDS;
+					case 'm':
+						return TimeUnit.MINUTES;
+					case 'h':
+						return TimeUnit.HOURS;
+					case 'd':
+						return TimeUnit.DAYS;
+					default:
+						return null;
+				}
+			case 2:
+				if (arg.charAt(start + 1) != 's') {
+					return null;
+				}
+				switch (arg.charAt(start)) {
+					case 'n':
+						return TimeUnit.NANOSECONDS;
+					case 'u':
+						return TimeUnit.MICROSECONDS;
+					case 'm':
+						return TimeUnit.MILLISECONDS;
+					default:
+						return null;
+				}
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * @param factor the factor of the unit, 0 if the unit is unknown
+	 */
+	private static long scaled(CharSequence arg, int start, int unitStart, int end, long factor, ErrorChannel errors) {
+		int index = start;
+		boolean negative = false;
+		if (index < unitStart && (arg.charAt(index) == '-' || arg.charAt(index) == '+')) {
+			negative = arg.charAt(index) == '-';
+			index++;
+		}
+		long value = digits(arg, start, index, unitStart, 10, negative, Long.MIN_VALUE, Long.MAX_VALUE, errors);
+		if (errors.hasError()) {
+			return 0;
+		}
+		if (factor == 0) {
+			errors.report(ErrorChannel.UNKNOWN_UNIT, arg, start, end, unitStart);
+			return 0;
+		}
+		if (value > Long.MAX_VALUE / factor || value < Long.MIN_VALUE / factor) {
+			errors.report(ErrorChannel.OUT_OF_RANGE, arg, start, end, start);
+			return 0;
+		}
+		return value * factor;
+	}
+
+	private static long digits(CharSequence arg, int start, int index, int end, int radix, boolean negative, long min, long max, ErrorChannel errors) {
+		if (index >= end) {
+			errors.report(ErrorChannel.NO_DIGITS, arg, start, end, index);
+			return 0;
+		}
+		// unsigned, -Long.MIN_VALUE is 2^63
+		long limit = negative ? -min : max;
+		long multiplyLimit = Long.divideUnsigned(limit, radix);
+		long magnitude = 0;
+		for (; index < end; index++) {
+			int digit = Character.digit(arg.charAt(index), radix);
+			if (digit < 0) {
+				errors.report(ErrorChannel.INVALID_DIGIT, arg, start, end, index);
+				return 0;
+			}
+			if (Long.compareUnsigned(magnitude, multiplyLimit) > 0) {
+				errors.report(ErrorChannel.OUT_OF_RANGE, arg, start, end, index);
+				return 0;
+			}
+			magnitude *= radix;
+			if (Long.compareUnsigned(magnitude, limit - digit) > 0) {
+				errors.report(ErrorChannel.OUT_OF_RANGE, arg, start, end, index);
+				return 0;
+			}
+			magnitude += digit;
+		}
+		return negative ? -magnitude : magnitude;
+	}
+
+	private static int unitStart(CharSequence arg, int start, int end) {
+		int unitStart = end;
+		while (unitStart > start && Character.isLetter(arg.charAt(unitStart - 1))) {
+			unitStart--;
+		}
+		return unitStart;
+	}
+
+	private static boolean regionMatches(CharSequence arg, int start, int end, String lowerCase) {
+		if (end - start != lowerCase.length()) {
+			return false;
+		}
+		for (int i = 0; i < lowerCase.length(); i++) {
+			if (Character.toLowerCase(arg.charAt(start + i)) != lowerCase.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
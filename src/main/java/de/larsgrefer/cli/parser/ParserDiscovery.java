@@ -0,0 +1,206 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package de.larsgrefer.cli.parser;
+
+import com.google.common.primitives.Primitives;
+import de.larsgrefer.cli.exceptions.ParserInstantiationException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Finds the {@link ArgumentParser}s which are added to the default parser database.
+ * <p>
+ * Parsers are taken from two places:
+ * <ul>
+ * <li>the index files at {@link #INDEX_RESOURCE}, which the annotation processor writes for every
+ * {@link de.larsgrefer.cli.annotations.CliParser} annotated class. Each line holds the binary name of the value type
+ * and the binary name of the parser, separated by whitespace.</li>
+ * <li>the providers of {@code META-INF/services/de.larsgrefer.cli.parser.ArgumentParser}, loaded with the
+ * {@link ServiceLoader}. Their value type is taken from the type argument of {@link ArgumentParser}, which has to be
+ * a class.</li>
+ * </ul>
+ * Parsers for wrapper types are registered for the primitive type, too. Entries which can not be loaded are logged and
+ * skipped.
+ *
+ * @author Lars Grefer
+ */
+public final class ParserDiscovery {
+
+	public static final String INDEX_RESOURCE = "META-INF/de.larsgrefer.cli/parsers.index";
+
+	private static final Logger log = LogManager.getLogger(ParserDiscovery.class);
+
+	private ParserDiscovery() {
+	}
+
+	/**
+	 * The parsers are discovered with the context class loader of the thread which calls this method first. Later
+	 * calls return the same map.
+	 *
+	 * @return the unmodifiable map of all discovered parsers by their value type
+	 */
+	public static Map<Type, ArgumentParser<?>> getDiscoveredParsers() {
+		return Holder.PARSERS;
+	}
+
+	/**
+	 * @param classLoader the class loader to read the index files and service providers from
+	 * @return a new map of all parsers found by the class loader
+	 */
+	public static Map<Type, ArgumentParser<?>> discover(ClassLoader classLoader) {
+		Map<Type, ArgumentParser<?>> parsers = new LinkedHashMap<>();
+		readIndexes(classLoader, parsers);
+		loadServices(classLoader, parsers);
+		return parsers;
+	}
+
+	private static void readIndexes(ClassLoader classLoader, Map<Type, ArgumentParser<?>> parsers) {
+		Enumeration<URL> indexes;
+		try {
+			indexes = classLoader.getResources(INDEX_RESOURCE);
+		} catch (IOException ex) {
+			log.warn("Could not look up the parser indexes", ex);
+			return;
+		}
+		while (indexes.hasMoreElements()) {
+			URL index = indexes.nextElement();
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					line = line.trim();
+					if (!line.isEmpty() && line.charAt(0) != '#') {
+						readIndexEntry(classLoader, line, parsers);
+					}
+				}
+			} catch (IOException ex) {
+				log.warn("Could not read parser index " + index, ex);
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void readIndexEntry(ClassLoader classLoader, String line, Map<Type, ArgumentParser<?>> parsers) {
+		String[] names = line.split("\\s+");
+		if (names.length != 2) {
+			log.warn("Skipping malformed parser index entry '{}'", line);
+			return;
+		}
+		try {
+			Class<?> valueType = Class.forName(names[0], false, classLoader);
+			Class<? extends ArgumentParser<?>> parserClass = (Class<? extends ArgumentParser<?>>) Class.forName(names[1], false, classLoader)
+					.asSubclass(ArgumentParser.class);
+			register(parsers, valueType, ParserRegistry.getDefault().getParser(parserClass));
+		} catch (ClassNotFoundException | ClassCastException | ParserInstantiationException | LinkageError ex) {
+			log.warn("Skipping parser index entry '" + line + "'", ex);
+		}
+	}
+
+	private static void loadServices(ClassLoader classLoader, Map<Type, ArgumentParser<?>> parsers) {
+		Iterator<ArgumentParser> providers = ServiceLoader.load(ArgumentParser.class, classLoader).iterator();
+		while (true) {
+			ArgumentParser<?> parser;
+			try {
+				if (!providers.hasNext()) {
+					return;
+				}
+				parser = providers.next();
+			} catch (ServiceConfigurationError ex) {
+				log.warn("Skipping parser service provider", ex);
+				continue;
+			}
+			Class<?> valueType = resolveValueType(parser.getClass());
+			if (valueType == null) {
+				log.warn("Skipping parser service provider {}, its value type can not be resolved", parser.getClass().getName());
+			} else {
+				register(parsers, valueType, parser);
+			}
+		}
+	}
+
+	private static void register(Map<Type, ArgumentParser<?>> parsers, Class<?> valueType, ArgumentParser<?> parser) {
+		parsers.put(valueType, parser);
+		Class<?> primitiveType = Primitives.unwrap(valueType);
+		if (primitiveType != valueType) {
+			parsers.put(primitiveType, parser);
+		}
+	}
+
+	/**
+	 * @param type a class implementing {@link ArgumentParser}
+	 * @return the type argument of {@link ArgumentParser} or null, if it is not a class
+	 */
+	static Class<?> resolveValueType(Class<?> type) {
+		if (type == null) {
+			return null;
+		}
+		for (Type superInterface : type.getGenericInterfaces()) {
+			Class<?> valueType = resolveTypeArgument(superInterface);
+			if (valueType != null) {
+				return valueType;
+			}
+		}
+		return resolveTypeArgument(type.getGenericSuperclass());
+	}
+
+	private static Class<?> resolveTypeArgument(Type type) {
+		if (type instanceof Class) {
+			return resolveValueType((Class<?>) type);
+		}
+		if (type instanceof ParameterizedType) {
+			ParameterizedType parameterizedType = (ParameterizedType) type;
+			if (parameterizedType.getRawType() == ArgumentParser.class) {
+				Type argument = parameterizedType.getActualTypeArguments()[0];
+				return argument instanceof Class ? (Class<?>) argument : null;
+			}
+			return resolveTypeArgument(parameterizedType.getRawType());
+		}
+		return null;
+	}
+
+	private static ClassLoader defaultClassLoader() {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		return classLoader != null ? classLoader : ParserDiscovery.class.getClassLoader();
+	}
+
+	private static final class Holder {
+
+		static final Map<Type, ArgumentParser<?>> PARSERS = Collections.unmodifiableMap(discover(defaultClassLoader()));
+	}
+}
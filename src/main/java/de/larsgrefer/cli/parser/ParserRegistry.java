@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.parser;
+
+import de.larsgrefer.cli.exceptions.ParserInstantiationException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+
+/**
+ * Creates and shares the instances of {@link ArgumentParser} classes.
+ * <p>
+ * The no-arg constructor of every parser class is looked up once and kept as a {@link MethodHandle}. Shared parsers
+ * are instantiated once per registry and returned for every request, all other requests get a new instance. The
+ * registry is thread safe.
+ *
+ * @see de.larsgrefer.cli.annotations.CliArgumentParser#shared()
+ * @author Lars Grefer
+ */
+public final class ParserRegistry {
+
+	private static final ParserRegistry DEFAULT = new ParserRegistry();
+
+	private final ClassValue<Entry> entries = new ClassValue<Entry>() {
+		@Override
+		protected Entry computeValue(Class<?> type) {
+			return new Entry(type);
+		}
+	};
+
+	/**
+	 * @return the registry used by default by all {@link de.larsgrefer.cli.AnnotationHandler}s
+	 */
+	public static ParserRegistry getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * @param <P> the type of the parser
+	 * @param parserClass the parser class, which needs an accessible no-arg constructor
+	 * @return the shared instance of the parser class
+	 * @throws ParserInstantiationException if the parser can not be instantiated
+	 */
+	public <P extends ArgumentParser<?>> P getParser(Class<P> parserClass) {
+		return getParser(parserClass, true);
+	}
+
+	/**
+	 * @param <P> the type of the parser
+	 * @param parserClass the parser class, which needs an accessible no-arg constructor
+	 * @param shared whether the shared instance is returned or a new one
+	 * @return an instance of the parser class
+	 * @throws ParserInstantiationException if the parser can not be instantiated
+	 */
+	public <P extends ArgumentParser<?>> P getParser(Class<P> parserClass, boolean shared) {
+		Entry entry = entries.get(parserClass);
+		return parserClass.cast(shared ? entry.sharedInstance() : entry.newInstance());
+	}
+
+	private static final class Entry {
+
+		private final Class<?> type;
+		private final MethodHandle constructor;
+		private volatile Object sharedInstance;
+
+		Entry(Class<?> type) {
+			this.type = type;
+			try {
+				Constructor<?> noArgConstructor = type.getDeclaredConstructor();
+				noArgConstructor.setAccessible(true);
+				this.constructor = MethodHandles.lookup().unreflectConstructor(noArgConstructor)
+						.asType(MethodType.methodType(Object.class));
+			} catch (NoSuchMethodException | IllegalAccessException | RuntimeException ex) {
+				throw new ParserInstantiationException("Parser class " + type.getName() + " has no accessible no-arg constructor", ex);
+			}
+		}
+
+		Object newInstance() {
+			try {
+				return (Object) constructor.invokeExact();
+			} catch (Error | ParserInstantiationException e) {
+				throw e;
+			} catch (Throwable t) {
+				throw new ParserInstantiationException("Could not instantiate parser class " + type.getName(), t);
+			}
+		}
+
+		Object sharedInstance() {
+			Object instance = sharedInstance;
+			if (instance == null) {
+				synchronized (this) {
+					instance = sharedInstance;
+					if (instance == null) {
+						instance = newInstance();
+						sharedInstance = instance;
+					}
+				}
+			}
+			return instance;
+		}
+	}
+}
@@ -0,0 +1,257 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package de.larsgrefer.cli.parser;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Finds the parser for a {@link Type} in a parser database.
+ * <p>
+ * If the database has no parser for the exact type, it is resolved as follows:
+ * <ul>
+ * <li>enums are parsed by an {@link EnumParser}</li>
+ * <li>arrays, {@link Set}s and {@link Optional}s are parsed with the parser of their element type. Arrays and sets
+ * are given as one comma separated argument.</li>
+ * <li>wildcards and type variables are resolved by their lower or else their upper bound</li>
+ * <li>other classes use the parser of their nearest super class or interface in the database. Its values are checked
+ * to be instances of the class when they are parsed.</li>
+ * </ul>
+ * Every resolved type, including the ones without parser, is cached, so the resolution is done once per type. The
+ * database must not be changed while the resolver is in use.
+ *
+ * @author Lars Grefer
+ */
+public final class ParserResolver {
+
+	private static final ArgumentParser<?> NONE = arg -> {
+		throw new UnsupportedOperationException();
+	};
+
+	private final Map<Type, ArgumentParser<?>> database;
+	private final ConcurrentMap<Type, ArgumentParser<?>> cache = new ConcurrentHashMap<>();
+
+	public ParserResolver(Map<Type, ArgumentParser<?>> database) {
+		this.database = database;
+	}
+
+	/**
+	 * @param type the type of the values
+	 * @return the parser for the type or null, if it can not be resolved
+	 */
+	public ArgumentParser<?> resolve(Type type) {
+		ArgumentParser<?> parser = cache.get(type);
+		if (parser == null) {
+			parser = compute(type);
+			ArgumentParser<?> cached = cache.putIfAbsent(type, parser != null ? parser : NONE);
+			if (cached != null) {
+				parser = cached;
+			}
+		}
+		return parser != NONE ? parser : null;
+	}
+
+	private ArgumentParser<?> compute(Type type) {
+		ArgumentParser<?> parser = database.get(type);
+		if (parser != null) {
+			return parser;
+		}
+		if (type instanceof Class) {
+			return resolveClass((Class<?>) type);
+		}
+		if (type instanceof ParameterizedType) {
+			return resolveParameterized((ParameterizedType) type);
+		}
+		if (type instanceof WildcardType) {
+			WildcardType wildcardType = (WildcardType) type;
+			Type[] lowerBounds = wildcardType.getLowerBounds();
+			return resolve(lowerBounds.length > 0 ? lowerBounds[0] : wildcardType.getUpperBounds()[0]);
+		}
+		if (type instanceof TypeVariable) {
+			return resolve(((TypeVariable<?>) type).getBounds()[0]);
+		}
+		if (type instanceof GenericArrayType) {
+			Type componentType = ((GenericArrayType) type).getGenericComponentType();
+			ArgumentParser<?> componentParser = resolve(componentType);
+			return componentParser != null ? new ArrayParser(rawType(componentType), componentParser) : null;
+		}
+		return null;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private ArgumentParser<?> resolveClass(Class<?> type) {
+		if (type.isEnum()) {
+			return new EnumParser(type);
+		}
+		if (type.isArray()) {
+			ArgumentParser<?> componentParser = resolve(type.getComponentType());
+			return componentParser != null ? new ArrayParser(type.getComponentType(), componentParser) : null;
+		}
+
+		Deque<Class<?>> superTypes = new ArrayDeque<>();
+		Set<Class<?>> visited = new HashSet<>();
+		addSuperTypes(type, superTypes);
+		while (!superTypes.isEmpty()) {
+			Class<?> superType = superTypes.poll();
+			if (!visited.add(superType)) {
+				continue;
+			}
+			ArgumentParser<?> parser = database.get(superType);
+			if (parser != null) {
+				return new CheckedParser(type, parser);
+			}
+			addSuperTypes(superType, superTypes);
+		}
+		return null;
+	}
+
+	private static void addSuperTypes(Class<?> type, Deque<Class<?>> superTypes) {
+		if (type.getSuperclass() != null) {
+			superTypes.add(type.getSuperclass());
+		}
+		Collections.addAll(superTypes, type.getInterfaces());
+	}
+
+	private ArgumentParser<?> resolveParameterized(ParameterizedType type) {
+		Class<?> rawType = (Class<?>) type.getRawType();
+		if (rawType == Optional.class || rawType == Set.class) {
+			ArgumentParser<?> elementParser = resolve(type.getActualTypeArguments()[0]);
+			if (elementParser == null) {
+				return null;
+			}
+			return rawType == Optional.class ? new OptionalParser(elementParser) : new SetParser(elementParser);
+		}
+		return resolve(rawType);
+	}
+
+	private static Class<?> rawType(Type type) {
+		if (type instanceof Class) {
+			return (Class<?>) type;
+		}
+		if (type instanceof ParameterizedType) {
+			return (Class<?>) ((ParameterizedType) type).getRawType();
+		}
+		if (type instanceof GenericArrayType) {
+			return Array.newInstance(rawType(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+		}
+		if (type instanceof TypeVariable) {
+			return rawType(((TypeVariable<?>) type).getBounds()[0]);
+		}
+		return Object.class;
+	}
+
+	private static String[] split(String arg) {
+		return arg.isEmpty() ? new String[0] : arg.split(",", -1);
+	}
+
+	private static final class ArrayParser implements ArgumentParser<Object> {
+
+		private final Class<?> componentType;
+		private final ArgumentParser<?> componentParser;
+
+		ArrayParser(Class<?> componentType, ArgumentParser<?> componentParser) {
+			this.componentType = componentType;
+			this.componentParser = componentParser;
+		}
+
+		@Override
+		public Object parse(String arg) {
+			String[] elements = split(arg);
+			Object array = Array.newInstance(componentType, elements.length);
+			for (int i = 0; i < elements.length; i++) {
+				Array.set(array, i, componentParser.parse(elements[i]));
+			}
+			return array;
+		}
+	}
+
+	private static final class SetParser implements ArgumentParser<Set<Object>> {
+
+		private final ArgumentParser<?> elementParser;
+
+		SetParser(ArgumentParser<?> elementParser) {
+			this.elementParser = elementParser;
+		}
+
+		@Override
+		public Set<Object> parse(String arg) {
+			String[] elements = split(arg);
+			Set<Object> set = new LinkedHashSet<>(elements.length * 2);
+			for (String element : elements) {
+				set.add(elementParser.parse(element));
+			}
+			return set;
+		}
+	}
+
+	private static final class OptionalParser implements ArgumentParser<Optional<Object>> {
+
+		private final ArgumentParser<?> elementParser;
+
+		OptionalParser(ArgumentParser<?> elementParser) {
+			this.elementParser = elementParser;
+		}
+
+		@Override
+		public Optional<Object> parse(String arg) {
+			return Optional.ofNullable(elementParser.parse(arg));
+		}
+	}
+
+	private static final class CheckedParser implements ArgumentParser<Object> {
+
+		private final Class<?> type;
+		private final ArgumentParser<?> parser;
+
+		CheckedParser(Class<?> type, ArgumentParser<?> parser) {
+			this.type = type;
+			this.parser = parser;
+		}
+
+		@Override
+		public Object parse(String arg) {
+			Object value = parser.parse(arg);
+			if (value != null && !type.isInstance(value)) {
+				throw new IllegalArgumentException("The parser for " + type.getName() + " returned a " + value.getClass().getName());
+			}
+			return value;
+		}
+	}
+}
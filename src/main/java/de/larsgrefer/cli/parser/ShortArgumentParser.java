@@ -0,0 +1,65 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.parser;
+
+/**
+ * An {@link ArgumentParser} which produces short values without boxing them
+ * <p>
+ * Only {@link #parseShort(java.lang.CharSequence)} has to be implemented, the boxing {@link #parse(java.lang.String)} delegates to it.
+ *
+ * @author Lars Grefer
+ */
+@FunctionalInterface
+public interface ShortArgumentParser extends ArgumentParser<Short> {
+
+	@Override
+	public default Short parse(String arg) {
+		return parseShort(arg);
+	}
+
+	public short parseShort(CharSequence arg);
+
+	/**
+	 * Parses a range of the argument and reports an error to the channel instead of throwing it.
+	 * <p>
+	 * The default implementation parses the sub sequence and reports the {@link IllegalArgumentException} thrown by
+	 * {@link #parseShort(java.lang.CharSequence)}. The built-in parsers report their errors without any exception.
+	 *
+	 * @param arg the argument
+	 * @param start the index of the first char of the value
+	 * @param end the index after the last char of the value
+	 * @param errors receives the error
+	 * @return the value, meaningless if an error was reported
+	 */
+	public default short parseShort(CharSequence arg, int start, int end, ErrorChannel errors) {
+		try {
+			return parseShort(arg.subSequence(start, end));
+		} catch (IllegalArgumentException ex) {
+			errors.report(ErrorChannel.INVALID_VALUE, arg, start, end, start, ex);
+			return 0;
+		}
+	}
+
+}
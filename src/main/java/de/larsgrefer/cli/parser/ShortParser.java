@@ -28,11 +28,25 @@ package de.larsgrefer.cli.parser;
  *
  * @author lgrefer
  */
-public class ShortParser implements ArgumentParser<Short>{
+public class ShortParser implements ShortArgumentParser{
 
 	@Override
-	public Short parse(String arg) {
-		return Short.decode(arg);
+	public short parseShort(CharSequence arg) {
+		return (short) NumberDecoder.decode(arg, Short.MIN_VALUE, Short.MAX_VALUE);
+	}
+
+	/**
+	 * Parses a range of the argument without allocating.
+	 *
+	 * @param arg the argument
+	 * @param start the index of the first char of the number
+	 * @param end the index after the last char of the number
+	 * @param errors receives the error, if the range is no short value
+	 * @return the value, meaningless if an error was reported
+	 */
+	@Override
+	public short parseShort(CharSequence arg, int start, int end, ErrorChannel errors) {
+		return (short) NumberDecoder.decode(arg, start, end, Short.MIN_VALUE, Short.MAX_VALUE, errors);
 	}
 	
 }
@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package de.larsgrefer.cli.parser;
+
+/**
+ * Parser for command line arguments which are representing a number of bytes, like {@code 512}, {@code 64k} or
+ * {@code 2GiB}
+ * <p>
+ * The units {@code b}, {@code k}, {@code m}, {@code g}, {@code t} and {@code p} are powers of 1024, may be followed by
+ * {@code b} or {@code ib} and are case insensitive.
+ *
+ * @author Lars Grefer
+ */
+public class SizeParser implements LongArgumentParser {
+
+	@Override
+	public long parseLong(CharSequence arg) {
+		ErrorChannel errors = ErrorChannel.forCurrentThread();
+		long size = parseLong(arg, 0, arg.length(), errors);
+		if (errors.hasError()) {
+			throw errors.toNumberFormatException();
+		}
+		return size;
+	}
+
+	/**
+	 * Parses a range of the argument without allocating.
+	 *
+	 * @param arg the argument
+	 * @param start the index of the first char of the size
+	 * @param end the index after the last char of the size
+	 * @param errors receives the error, if the range is no size
+	 * @return the size in bytes, meaningless if an error was reported
+	 */
+	@Override
+	public long parseLong(CharSequence arg, int start, int end, ErrorChannel errors) {
+		return NumberDecoder.decodeSize(arg, start, end, errors);
+	}
+
+}
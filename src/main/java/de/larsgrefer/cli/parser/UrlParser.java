@@ -26,7 +26,9 @@ package de.larsgrefer.cli.parser;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import de.larsgrefer.cli.Diagnostics;
 import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  *
@@ -34,10 +36,13 @@ import org.apache.logging.log4j.LogManager;
  */
 public class UrlParser implements ArgumentParser<URL>{
 
+	private static final Logger log = LogManager.getLogger(UrlParser.class);
+
 	@Override
 	public URL parse(String arg) {
-		LogManager.getLogger(this)
-				.entry(arg);
+		if (Diagnostics.ENABLED && log.isTraceEnabled()) {
+			log.trace("Parsing URL {}", arg);
+		}
 		try {
 			return new URL(arg);
 		} catch (MalformedURLException ex) {
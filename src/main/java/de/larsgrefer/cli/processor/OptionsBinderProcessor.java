@@ -0,0 +1,409 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.processor;
+
+import de.larsgrefer.cli.OptionSchema.OptionBinding.Kind;
+import de.larsgrefer.cli.OptionsBinder;
+import de.larsgrefer.cli.annotations.CliArgumentParser;
+import de.larsgrefer.cli.annotations.CliOption;
+import de.larsgrefer.cli.collections.DoubleList;
+import de.larsgrefer.cli.collections.IntList;
+import de.larsgrefer.cli.collections.LongList;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates an {@link OptionsBinder} for every class with {@link CliOption} annotated fields.
+ * <p>
+ * The generated binder creates the options and writes the fields without any reflection. It is only generated if
+ * all annotated fields can be accessed from the package of the class, i.e. they are neither private nor final and
+ * the class itself is not private. For all other classes a note is emitted and the {@link de.larsgrefer.cli.AnnotationHandler}
+ * keeps using reflection.
+ * <p>
+ * A binder only covers the fields declared by its class. Inherited options and {@link de.larsgrefer.cli.annotations.CliNested}
+ * fields are added by the {@link de.larsgrefer.cli.AnnotationHandler}.
+ *
+ * @author Lars Grefer
+ */
+@SupportedAnnotationTypes("de.larsgrefer.cli.annotations.CliOption")
+public class OptionsBinderProcessor extends AbstractProcessor {
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Set<TypeElement> types = new LinkedHashSet<>();
+		for (Element element : roundEnv.getElementsAnnotatedWith(CliOption.class)) {
+			if (element.getKind() == ElementKind.FIELD) {
+				types.add((TypeElement) element.getEnclosingElement());
+			}
+		}
+
+		for (TypeElement type : types) {
+			try {
+				List<BinderField> fields = collectFields(type);
+				writeBinder(type, fields);
+			} catch (UnsupportedFieldException ex) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+						"No OptionsBinder generated, reflection will be used: " + ex.getMessage(), ex.element);
+			} catch (IOException ex) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+						"Could not write OptionsBinder: " + ex.getMessage(), type);
+			}
+		}
+		return false;
+	}
+
+	private List<BinderField> collectFields(TypeElement type) throws UnsupportedFieldException {
+		checkAccessible(type);
+
+		List<BinderField> fields = new ArrayList<>();
+		for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+			CliOption cliOption = field.getAnnotation(CliOption.class);
+			if (cliOption == null) {
+				continue;
+			}
+			Set<Modifier> modifiers = field.getModifiers();
+			if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL)) {
+				throw new UnsupportedFieldException(field, "field " + field.getSimpleName() + " is private or final");
+			}
+
+			BinderField bf = new BinderField();
+			bf.field = field;
+			bf.option = cliOption;
+			bf.parserClass = getParserClass(field);
+			bf.parserShared = bf.parserClass == null || field.getAnnotation(CliArgumentParser.class).shared();
+			bf.kind = getKind(field, bf.parserClass != null);
+			if (bf.parserClass == null) {
+				bf.valueType = getValueType(field, bf.kind);
+			}
+			fields.add(bf);
+		}
+		return fields;
+	}
+
+	private void checkAccessible(TypeElement type) throws UnsupportedFieldException {
+		Element element = type;
+		while (element instanceof TypeElement) {
+			TypeElement typeElement = (TypeElement) element;
+			if (typeElement.getModifiers().contains(Modifier.PRIVATE)) {
+				throw new UnsupportedFieldException(type, typeElement.getQualifiedName() + " is private");
+			}
+			NestingKind nestingKind = typeElement.getNestingKind();
+			if (nestingKind != NestingKind.TOP_LEVEL && nestingKind != NestingKind.MEMBER) {
+				throw new UnsupportedFieldException(type, typeElement + " is a local or anonymous class");
+			}
+			element = typeElement.getEnclosingElement();
+		}
+	}
+
+	private String getParserClass(VariableElement field) throws UnsupportedFieldException {
+		for (AnnotationMirror mirror : field.getAnnotationMirrors()) {
+			TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+			if (!annotationType.getQualifiedName().contentEquals(CliArgumentParser.class.getCanonicalName())) {
+				continue;
+			}
+			for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+				if (entry.getKey().getSimpleName().contentEquals("value")) {
+					TypeMirror parserType = (TypeMirror) entry.getValue().getValue();
+					TypeElement parserElement = (TypeElement) processingEnv.getTypeUtils().asElement(parserType);
+					checkInstantiable(field, parserElement);
+					return parserElement.getQualifiedName().toString();
+				}
+			}
+		}
+		return null;
+	}
+
+	private void checkInstantiable(VariableElement field, TypeElement parser) throws UnsupportedFieldException {
+		checkAccessible(parser);
+		if (parser.getModifiers().contains(Modifier.ABSTRACT)) {
+			throw new UnsupportedFieldException(field, "parser " + parser + " is abstract");
+		}
+		if (parser.getNestingKind() == NestingKind.MEMBER && !parser.getModifiers().contains(Modifier.STATIC)) {
+			throw new UnsupportedFieldException(field, "parser " + parser + " is an inner class");
+		}
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(parser.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty()) {
+				return;
+			}
+		}
+		throw new UnsupportedFieldException(field, "parser " + parser + " has no no-arg constructor");
+	}
+
+	private Kind getKind(VariableElement field, boolean hasParser) {
+		TypeMirror type = field.asType();
+		if (!hasParser && (type.getKind() == TypeKind.BOOLEAN || isType(type, Boolean.class.getCanonicalName()))) {
+			return Kind.FLAG;
+		}
+		Kind primitiveListKind = getPrimitiveListKind(type);
+		if (primitiveListKind != null) {
+			return primitiveListKind;
+		}
+		TypeMirror listType = processingEnv.getElementUtils().getTypeElement(List.class.getCanonicalName()).asType();
+		if (processingEnv.getTypeUtils().isAssignable(erasure(type), erasure(listType))) {
+			return Kind.LIST;
+		}
+		return Kind.VALUE;
+	}
+
+	private Kind getPrimitiveListKind(TypeMirror type) {
+		if (type.getKind() == TypeKind.ARRAY) {
+			switch (((ArrayType) type).getComponentType().getKind()) {
+				case INT:
+					return Kind.INT_ARRAY;
+				case LONG:
+					return Kind.LONG_ARRAY;
+				case DOUBLE:
+					return Kind.DOUBLE_ARRAY;
+				default:
+					return null;
+			}
+		} else if (isType(type, IntList.class.getCanonicalName())) {
+			return Kind.INT_LIST;
+		} else if (isType(type, LongList.class.getCanonicalName())) {
+			return Kind.LONG_LIST;
+		} else if (isType(type, DoubleList.class.getCanonicalName())) {
+			return Kind.DOUBLE_LIST;
+		}
+		return null;
+	}
+
+	private String getValueType(VariableElement field, Kind kind) throws UnsupportedFieldException {
+		TypeMirror type = field.asType();
+		switch (kind) {
+			case INT_LIST:
+			case INT_ARRAY:
+				return "int";
+			case LONG_LIST:
+			case LONG_ARRAY:
+				return "long";
+			case DOUBLE_LIST:
+			case DOUBLE_ARRAY:
+				return "double";
+			default:
+		}
+		if (kind == Kind.LIST) {
+			List<? extends TypeMirror> typeArguments = type.getKind() == TypeKind.DECLARED
+					? ((DeclaredType) type).getTypeArguments()
+					: new ArrayList<TypeMirror>();
+			if (typeArguments.size() != 1 || typeArguments.get(0).getKind() != TypeKind.DECLARED) {
+				throw new UnsupportedFieldException(field, "the element type of " + field.getSimpleName() + " is not a plain class");
+			}
+			type = typeArguments.get(0);
+		}
+		if (type.getKind() == TypeKind.TYPEVAR || type.getKind() == TypeKind.ARRAY
+				|| (type.getKind() == TypeKind.DECLARED && !((DeclaredType) type).getTypeArguments().isEmpty())) {
+			throw new UnsupportedFieldException(field, "the type of " + field.getSimpleName() + " is not a plain class");
+		}
+		return erasure(type).toString();
+	}
+
+	private boolean isType(TypeMirror type, String canonicalName) {
+		return type.getKind() == TypeKind.DECLARED
+				&& ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(canonicalName);
+	}
+
+	private TypeMirror erasure(TypeMirror type) {
+		return processingEnv.getTypeUtils().erasure(type);
+	}
+
+	private void writeBinder(TypeElement type, List<BinderField> fields) throws IOException {
+		String packageName = ((PackageElement) processingEnv.getElementUtils().getPackageOf(type)).getQualifiedName().toString();
+		String binderName = OptionsBinder.binderName(processingEnv.getElementUtils().getBinaryName(type).toString());
+		String binderSimpleName = binderName.substring(binderName.lastIndexOf('.') + 1);
+		String typeName = erasure(type.asType()).toString();
+
+		StringBuilder src = new StringBuilder();
+		if (!packageName.isEmpty()) {
+			src.append("package ").append(packageName).append(";\n\n");
+		}
+		src.append("import de.larsgrefer.cli.AnnotationHandler;\n");
+		src.append("import de.larsgrefer.cli.OptionSchema;\n");
+		src.append("import de.larsgrefer.cli.OptionSchema.OptionBinding;\n");
+		src.append("import de.larsgrefer.cli.OptionsBinder;\n");
+		src.append("import de.larsgrefer.cli.binding.FieldWriter;\n");
+		src.append("import java.util.ArrayList;\n");
+		src.append("import java.util.List;\n\n");
+		src.append("/**\n * Generated by ").append(OptionsBinderProcessor.class.getName()).append(" for {@link ").append(typeName).append("}\n */\n");
+		src.append("public final class ").append(binderSimpleName).append(" implements OptionsBinder<").append(typeName).append("> {\n\n");
+		src.append("\t@Override\n");
+		src.append("\t@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+		src.append("\tpublic OptionSchema createSchema(AnnotationHandler annotationHandler) {\n");
+		src.append("\t\tList<OptionBinding> bindings = new ArrayList<>(").append(fields.size()).append(");\n");
+		for (BinderField field : fields) {
+			writeBinding(src, typeName, field);
+		}
+		src.append("\t\treturn new OptionSchema(").append(typeName).append(".class, bindings);\n");
+		src.append("\t}\n");
+		src.append("}\n");
+
+		JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(binderName, type);
+		try (Writer writer = sourceFile.openWriter()) {
+			writer.write(src.toString());
+		}
+	}
+
+	private void writeBinding(StringBuilder src, String typeName, BinderField field) {
+		String fieldName = field.field.getSimpleName().toString();
+		String longName = field.option.longName().equals(CliOption.DEFAULT_LONG_NAME) ? fieldName : field.option.longName();
+
+		String parser;
+		if (field.parserClass != null) {
+			parser = "annotationHandler.getParserRegistry().getParser(" + field.parserClass + ".class, " + field.parserShared + ")";
+		} else if (field.kind == Kind.FLAG) {
+			parser = "null";
+		} else {
+			parser = "annotationHandler.requireParser(" + field.valueType + ".class, " + stringLiteral(fieldName) + ")";
+		}
+
+		src.append("\t\tbindings.add(new OptionBinding(")
+				.append(stringLiteral(fieldName)).append(", ")
+				.append(charLiteral(field.option.name())).append(", ")
+				.append(stringLiteral(longName)).append(", ")
+				.append(field.option.required()).append(", ")
+				.append(stringLiteral(field.option.description())).append(", ")
+				.append("OptionBinding.Kind.").append(field.kind.name()).append(", ")
+				.append(parser).append(", ");
+		writeFieldWriter(src, typeName, field);
+		src.append("));\n");
+	}
+
+	private void writeFieldWriter(StringBuilder src, String typeName, BinderField field) {
+		String target = field.field.getModifiers().contains(Modifier.STATIC)
+				? typeName + "." + field.field.getSimpleName()
+				: "((" + typeName + ") target)." + field.field.getSimpleName();
+		TypeMirror type = field.field.asType();
+
+		if (!type.getKind().isPrimitive()) {
+			src.append("(target, value) -> ").append(target).append(" = (").append(erasure(type)).append(") value");
+			return;
+		}
+
+		String primitive = type.toString();
+		String boxed = processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind())).getQualifiedName().toString();
+		src.append("new FieldWriter() {\n");
+		src.append("\t\t\t@Override\n");
+		src.append("\t\t\tpublic void set(Object target, Object value) {\n");
+		src.append("\t\t\t\t").append(target).append(" = (").append(boxed).append(") value;\n");
+		src.append("\t\t\t}\n");
+		if (type.getKind() != TypeKind.FLOAT && type.getKind() != TypeKind.DOUBLE) {
+			String setter = "set" + Character.toUpperCase(primitive.charAt(0)) + primitive.substring(1);
+			src.append("\n");
+			src.append("\t\t\t@Override\n");
+			src.append("\t\t\tpublic void ").append(setter).append("(Object target, ").append(primitive).append(" value) {\n");
+			src.append("\t\t\t\t").append(target).append(" = value;\n");
+			src.append("\t\t\t}\n");
+		}
+		src.append("\t\t}");
+	}
+
+	static String charLiteral(char c) {
+		if (Character.isLetterOrDigit(c) && c < 128) {
+			return "'" + c + "'";
+		}
+		return "(char) " + (int) c;
+	}
+
+	static String stringLiteral(String s) {
+		StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+				case '"':
+					sb.append("\\\"");
+					break;
+				case '\\':
+					sb.append("\\\\");
+					break;
+				case '\n':
+					sb.append("\\n");
+					break;
+				case '\r':
+					sb.append("\\r");
+					break;
+				case '\t':
+					sb.append("\\t");
+					break;
+				default:
+					if (c < 0x20) {
+						sb.append(String.format("\\%03o", (int) c));
+					} else {
+						sb.append(c);
+					}
+			}
+		}
+		return sb.append('"').toString();
+	}
+
+	private static class BinderField {
+
+		VariableElement field;
+		CliOption option;
+		Kind kind;
+		String parserClass;
+		boolean parserShared;
+		String valueType;
+	}
+
+	private static class UnsupportedFieldException extends Exception {
+
+		final transient Element element;
+
+		UnsupportedFieldException(Element element, String message) {
+			super(message);
+			this.element = element;
+		}
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package de.larsgrefer.cli.processor;
+
+import de.larsgrefer.cli.annotations.CliParser;
+import de.larsgrefer.cli.parser.ArgumentParser;
+import de.larsgrefer.cli.parser.ParserDiscovery;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes the index of all {@link CliParser} annotated classes, which is read by {@link ParserDiscovery}.
+ * <p>
+ * The value type of every parser is resolved from its {@link ArgumentParser} super type here, so no reflection is
+ * needed when the index is loaded. The index is written once all rounds are processed.
+ *
+ * @author Lars Grefer
+ */
+@SupportedAnnotationTypes("de.larsgrefer.cli.annotations.CliParser")
+public class ParserIndexProcessor extends AbstractProcessor {
+
+	/**
+	 * Binary name of the value type by binary name of the parser.
+	 */
+	private final Map<String, String> index = new TreeMap<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			if (!index.isEmpty()) {
+				writeIndex();
+			}
+			return false;
+		}
+
+		for (Element element : roundEnv.getElementsAnnotatedWith(CliParser.class)) {
+			if (element.getKind() != ElementKind.CLASS) {
+				error(element, "@CliParser is only allowed on classes");
+				continue;
+			}
+			TypeElement parser = (TypeElement) element;
+			if (!isInstantiable(parser)) {
+				continue;
+			}
+			TypeMirror valueType = findValueType(parser.asType());
+			if (valueType == null) {
+				error(parser, "The value type of " + parser + " is not a class");
+				continue;
+			}
+			TypeElement valueElement = (TypeElement) processingEnv.getTypeUtils().asElement(valueType);
+			index.put(binaryName(parser), binaryName(valueElement));
+		}
+		return false;
+	}
+
+	private boolean isInstantiable(TypeElement parser) {
+		if (parser.getModifiers().contains(Modifier.ABSTRACT)) {
+			error(parser, "Parser " + parser + " is abstract");
+			return false;
+		}
+		if (parser.getNestingKind() == NestingKind.MEMBER && !parser.getModifiers().contains(Modifier.STATIC)) {
+			error(parser, "Parser " + parser + " is an inner class");
+			return false;
+		}
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(parser.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty()) {
+				return true;
+			}
+		}
+		error(parser, "Parser " + parser + " has no no-arg constructor");
+		return false;
+	}
+
+	/**
+	 * @return the type argument of {@link ArgumentParser} as seen from the given type or null, if it is not a class
+	 */
+	private TypeMirror findValueType(TypeMirror type) {
+		for (TypeMirror superType : processingEnv.getTypeUtils().directSupertypes(type)) {
+			if (superType.getKind() != TypeKind.DECLARED) {
+				continue;
+			}
+			DeclaredType declaredType = (DeclaredType) superType;
+			TypeElement element = (TypeElement) declaredType.asElement();
+			if (element.getQualifiedName().contentEquals(ArgumentParser.class.getCanonicalName())) {
+				if (declaredType.getTypeArguments().isEmpty()) {
+					return null;
+				}
+				TypeMirror argument = declaredType.getTypeArguments().get(0);
+				return argument.getKind() == TypeKind.DECLARED ? processingEnv.getTypeUtils().erasure(argument) : null;
+			}
+			TypeMirror valueType = findValueType(superType);
+			if (valueType != null) {
+				return valueType;
+			}
+		}
+		return null;
+	}
+
+	private String binaryName(TypeElement type) {
+		return processingEnv.getElementUtils().getBinaryName(type).toString();
+	}
+
+	private void writeIndex() {
+		try {
+			FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ParserDiscovery.INDEX_RESOURCE);
+			try (Writer writer = resource.openWriter()) {
+				writer.write("# value type, parser\n");
+				for (Map.Entry<String, String> entry : index.entrySet()) {
+					writer.write(entry.getValue() + " " + entry.getKey() + "\n");
+				}
+			}
+		} catch (IOException ex) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write the parser index: " + ex.getMessage());
+		}
+	}
+
+	private void error(Element element, String message) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.source;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * An {@link ArgumentSource} replacing {@code @file} arguments of another source with the arguments in the file.
+ *
+ * @see ArgumentSources#withArgFiles(de.larsgrefer.cli.source.ArgumentSource)
+ * @author Lars Grefer
+ */
+class ArgFileExpandingSource implements ArgumentSource {
+
+	private final ArgumentSource source;
+	private ArgumentSource argFile;
+
+	ArgFileExpandingSource(ArgumentSource source) {
+		this.source = source;
+	}
+
+	@Override
+	public CharSequence next() throws IOException {
+		while (true) {
+			if (argFile != null) {
+				CharSequence arg = argFile.next();
+				if (arg != null) {
+					return arg;
+				}
+				argFile.close();
+				argFile = null;
+			}
+
+			CharSequence arg = source.next();
+			if (arg == null || arg.length() < 2 || arg.charAt(0) != '@') {
+				return arg;
+			}
+			if (arg.charAt(1) == '@') {
+				return arg.subSequence(1, arg.length());
+			}
+			argFile = ArgumentSources.of(Paths.get(arg.subSequence(1, arg.length()).toString()));
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			if (argFile != null) {
+				argFile.close();
+			}
+		} finally {
+			source.close();
+		}
+	}
+}
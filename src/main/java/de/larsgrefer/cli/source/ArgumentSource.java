@@ -0,0 +1,54 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.source;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A sequential source of command line arguments.
+ * <p>
+ * In contrast to a {@link String} array, the arguments are produced one after another, so a source can read any
+ * number of arguments with bounded memory. Use {@link ArgumentSources} to create one.
+ *
+ * @author Lars Grefer
+ */
+public interface ArgumentSource extends Closeable {
+
+	/**
+	 * Returns the next argument.
+	 * <p>
+	 * The returned sequence may be a view of a buffer which is reused by the source, so it is only valid until the
+	 * next call of this method. Call {@link CharSequence#toString()} to keep it.
+	 *
+	 * @return the next argument, or null if there are no more arguments
+	 * @throws IOException if the arguments can not be read
+	 */
+	CharSequence next() throws IOException;
+
+	@Override
+	default void close() throws IOException {
+	}
+}
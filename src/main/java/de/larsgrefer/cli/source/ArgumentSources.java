@@ -0,0 +1,112 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.source;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+
+/**
+ * Factory methods for {@link ArgumentSource}s.
+ * <p>
+ * Readers and argument files are split into arguments at ASCII whitespace. Characters enclosed in double quotes
+ * ({@code "}) or single quotes ({@code '}) belong to one argument, including whitespace. Within double quotes a
+ * backslash ({@code \}) escapes the next character, within single quotes all characters are taken literally. Outside
+ * of quotes the backslash has no special meaning, so Windows paths can be given as they are.
+ *
+ * @author Lars Grefer
+ */
+public final class ArgumentSources {
+
+	private ArgumentSources() {
+	}
+
+	/**
+	 * @param args the arguments
+	 * @return a source of the given arguments
+	 */
+	public static ArgumentSource of(String... args) {
+		return new ArrayArgumentSource(args);
+	}
+
+	/**
+	 * @param iterator the arguments
+	 * @return a source consuming the iterator while it is read
+	 */
+	public static ArgumentSource of(Iterator<? extends CharSequence> iterator) {
+		return new IteratorArgumentSource(iterator);
+	}
+
+	/**
+	 * @param reader the arguments, separated by whitespace
+	 * @return a source splitting the characters of the reader into arguments while it is read
+	 */
+	public static ArgumentSource of(Reader reader) {
+		return new ReaderArgumentSource(reader);
+	}
+
+	/**
+	 * Reads the arguments from a file.
+	 * <p>
+	 * The file is memory mapped and split into arguments in place. Arguments without quotes and non ASCII characters
+	 * are returned as views of the mapping, so a {@link String} is only created for them when a parser needs one.
+	 * Files which are too large to be mapped at once are read sequentially instead.
+	 *
+	 * @param file an UTF-8 encoded file containing arguments, separated by whitespace
+	 * @return a source reading the file while it is read
+	 * @throws IOException if the file can not be opened or mapped
+	 */
+	public static ArgumentSource of(Path file) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			if (channel.size() <= Integer.MAX_VALUE) {
+				return new MappedArgumentSource(channel);
+			}
+		} catch (IOException | RuntimeException ex) {
+			channel.close();
+			throw ex;
+		}
+		return of(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), -1));
+	}
+
+	/**
+	 * Expands argument files.
+	 * <p>
+	 * Every argument of the given source which starts with {@code @} is replaced by the arguments in the file at the
+	 * path following the {@code @}, see {@link #of(java.nio.file.Path)}. Arguments in argument files are not expanded
+	 * again. An argument starting with {@code @@} is passed on with one {@code @} removed.
+	 *
+	 * @param source the arguments which may reference argument files
+	 * @return a source of the arguments with all argument files expanded
+	 */
+	public static ArgumentSource withArgFiles(ArgumentSource source) {
+		return new ArgFileExpandingSource(source);
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.source;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * An {@link ArgumentSource} splitting a memory mapped, UTF-8 encoded file into arguments.
+ * <p>
+ * The file is tokenized directly in the mapped buffer. Arguments which consist of ASCII characters only and contain no
+ * quotes are returned as a view of the buffer, so no {@link String} is created unless the parser of the option asks
+ * for one. All other arguments are decoded into a new {@link String}.
+ * <p>
+ * The mapping is released by the garbage collector once the source is no longer referenced, {@link #close()} only
+ * closes the channel.
+ *
+ * @see ArgumentSources#of(java.nio.file.Path)
+ * @author Lars Grefer
+ */
+class MappedArgumentSource implements ArgumentSource {
+
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final int limit;
+	private int position;
+
+	private final AsciiSequence view;
+	private byte[] scratch = new byte[64];
+
+	MappedArgumentSource(FileChannel channel) throws IOException {
+		this.channel = channel;
+		this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		this.limit = buffer.limit();
+		this.view = new AsciiSequence(buffer);
+	}
+
+	@Override
+	public CharSequence next() throws IOException {
+		while (position < limit && ReaderArgumentSource.isWhitespace(buffer.get(position))) {
+			position++;
+		}
+		if (position == limit) {
+			return null;
+		}
+
+		int start = position;
+		boolean plain = true;
+		while (position < limit) {
+			byte b = buffer.get(position);
+			if (ReaderArgumentSource.isWhitespace(b)) {
+				break;
+			} else if (b == '"' || b == '\'' || b < 0) {
+				plain = false;
+				break;
+			}
+			position++;
+		}
+
+		if (plain) {
+			view.start = start;
+			view.end = position;
+			return view;
+		}
+		position = start;
+		return decode();
+	}
+
+	/**
+	 * Removes the quotes of the argument at the current position and decodes it.
+	 */
+	private String decode() throws IOException {
+		int length = 0;
+		while (position < limit) {
+			byte b = buffer.get(position++);
+			if (ReaderArgumentSource.isWhitespace(b)) {
+				break;
+			}
+			if (b == '"' || b == '\'') {
+				length = readQuoted(b, length);
+			} else {
+				length = append(b, length);
+			}
+		}
+		return new String(scratch, 0, length, StandardCharsets.UTF_8);
+	}
+
+	private int readQuoted(byte quote, int length) throws IOException {
+		while (true) {
+			if (position == limit) {
+				throw new IOException("Missing closing " + (char) quote + " after " + new String(scratch, 0, length, StandardCharsets.UTF_8));
+			}
+			byte b = buffer.get(position++);
+			if (b == quote) {
+				return length;
+			}
+			if (quote == '"' && b == '\\' && position < limit) {
+				b = buffer.get(position++);
+			}
+			length = append(b, length);
+		}
+	}
+
+	private int append(byte b, int length) {
+		if (length == scratch.length) {
+			scratch = Arrays.copyOf(scratch, length * 2);
+		}
+		scratch[length] = b;
+		return length + 1;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * A view of ASCII characters in a buffer.
+	 */
+	private static final class AsciiSequence implements CharSequence {
+
+		private final ByteBuffer buffer;
+		int start;
+		int end;
+
+		AsciiSequence(ByteBuffer buffer) {
+			this(buffer, 0, 0);
+		}
+
+		AsciiSequence(ByteBuffer buffer, int start, int end) {
+			this.buffer = buffer;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public int length() {
+			return end - start;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (index < 0 || index >= end - start) {
+				throw new IndexOutOfBoundsException(Integer.toString(index));
+			}
+			return (char) buffer.get(start + index);
+		}
+
+		@Override
+		public CharSequence subSequence(int from, int to) {
+			if (from < 0 || from > to || to > end - start) {
+				throw new IndexOutOfBoundsException(from + ", " + to);
+			}
+			return new AsciiSequence(buffer, start + from, start + to);
+		}
+
+		@Override
+		public String toString() {
+			byte[] bytes = new byte[end - start];
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = buffer.get(start + i);
+			}
+			return new String(bytes, StandardCharsets.US_ASCII);
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Lars Grefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.source;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * An {@link ArgumentSource} splitting the characters of a {@link Reader} into arguments.
+ * <p>
+ * The arguments are collected in one reused buffer, so the memory needed does not depend on the number of arguments.
+ *
+ * @see ArgumentSources#of(java.io.Reader)
+ * @author Lars Grefer
+ */
+class ReaderArgumentSource implements ArgumentSource {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final Reader reader;
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private int position;
+	private int limit;
+	private final StringBuilder argument = new StringBuilder();
+
+	ReaderArgumentSource(Reader reader) {
+		this.reader = reader;
+	}
+
+	@Override
+	public CharSequence next() throws IOException {
+		int c = read();
+		while (c != -1 && isWhitespace(c)) {
+			c = read();
+		}
+		if (c == -1) {
+			return null;
+		}
+
+		argument.setLength(0);
+		while (c != -1 && !isWhitespace(c)) {
+			if (c == '"') {
+				readQuoted('"', true);
+			} else if (c == '\'') {
+				readQuoted('\'', false);
+			} else {
+				argument.append((char) c);
+			}
+			c = read();
+		}
+		return argument;
+	}
+
+	private void readQuoted(char quote, boolean escapes) throws IOException {
+		for (int c = read(); c != quote; c = read()) {
+			if (escapes && c == '\\') {
+				c = read();
+			}
+			if (c == -1) {
+				throw new IOException("Missing closing " + quote + " after " + argument);
+			}
+			argument.append((char) c);
+		}
+	}
+
+	private int read() throws IOException {
+		if (position == limit) {
+			int read = reader.read(buffer, 0, buffer.length);
+			if (read <= 0) {
+				return -1;
+			}
+			position = 0;
+			limit = read;
+		}
+		return buffer[position++];
+	}
+
+	/**
+	 * @return whether the given character separates arguments
+	 */
+	static boolean isWhitespace(int c) {
+		return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f' || c == 0x0B;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+}
@@ -24,11 +24,33 @@
 package de.larsgrefer.cli;
 
 import com.google.common.base.Objects;
+import de.larsgrefer.cli.annotations.CliArgumentParser;
+import de.larsgrefer.cli.annotations.CliNested;
 import de.larsgrefer.cli.annotations.CliOption;
+import de.larsgrefer.cli.collections.DoubleList;
+import de.larsgrefer.cli.collections.IntList;
+import de.larsgrefer.cli.exceptions.ConstraintViolationException;
 import de.larsgrefer.cli.exceptions.DuplicateOptionException;
+import de.larsgrefer.cli.exceptions.InvalidArgumentException;
 import de.larsgrefer.cli.exceptions.NoArgumentAllowedException;
 import de.larsgrefer.cli.model.CommandLineOption;
+import de.larsgrefer.cli.parser.ArgumentParser;
+import de.larsgrefer.cli.parser.ParserRegistryTest.UpperCaseParser;
+import de.larsgrefer.cli.source.ArgumentSources;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import static org.junit.Assert.*;
 import org.junit.Test;
@@ -73,6 +95,218 @@ public class AnnotationFillerTest {
 		assertEquals("bar", tc.etest.get(1));
 	}
 
+	@Test
+	public void testSchemaIsCached() throws DuplicateOptionException, NoArgumentAllowedException, IllegalArgumentException, IllegalAccessException {
+		AnnotationHandler ah = new AnnotationHandler();
+		assertSame(ah.getSchema(TestClass.class), ah.getSchema(TestClass.class));
+
+		TestClass tc1 = new TestClass();
+		TestClass tc2 = new TestClass();
+		ah.fillOptions(tc1, new String[]{"-a", "-b", "1"});
+		ah.fillOptions(tc2, new String[]{"-b", "2", "-e", "foo"});
+
+		assertTrue(tc1.atest);
+		assertEquals(1, tc1.btest);
+		assertNull(tc1.etest);
+		assertFalse(tc2.atest);
+		assertEquals(2, tc2.btest);
+		assertEquals("foo", tc2.etest.get(0));
+	}
+
+	@Test
+	public void testParserDatabaseChangesInvalidateCaches() {
+		AnnotationHandler ah = new AnnotationHandler();
+		OptionSchema schema = ah.getSchema(TestClass.class);
+		assertNull(ah.classToParser(AtomicBoolean.class));
+
+		ArgumentParser<AtomicBoolean> parser = arg -> new AtomicBoolean(Boolean.parseBoolean(arg));
+		ah.getParserDatabase().put(AtomicBoolean.class, parser);
+
+		assertSame(parser, ah.classToParser(AtomicBoolean.class));
+		assertNotSame(schema, ah.getSchema(TestClass.class));
+
+		ah.getParserDatabase().remove(AtomicBoolean.class);
+		assertNull(ah.classToParser(AtomicBoolean.class));
+	}
+
+	@Test
+	public void testParserDatabaseIsCopied() {
+		Map<Type, ArgumentParser<?>> database = new HashMap<>();
+		AnnotationHandler ah = new AnnotationHandler(database);
+		assertNull(ah.classToParser(AtomicBoolean.class));
+
+		database.put(AtomicBoolean.class, arg -> new AtomicBoolean(Boolean.parseBoolean(arg)));
+		assertNull(ah.classToParser(AtomicBoolean.class));
+		assertFalse(ah.getParserDatabase().containsKey(AtomicBoolean.class));
+
+		ah.setParserDatabase(database);
+		assertNotNull(ah.classToParser(AtomicBoolean.class));
+		database.clear();
+		assertNotNull(ah.classToParser(AtomicBoolean.class));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testParserDatabaseViewsAreReadOnly() {
+		new AnnotationHandler().getParserDatabase().keySet().clear();
+	}
+
+	@Test
+	public void testGeneratedBinder() throws DuplicateOptionException, NoArgumentAllowedException, IllegalArgumentException, IllegalAccessException {
+		AnnotationHandler ah = new AnnotationHandler();
+		assertTrue(ah.findBinder(TestClass.class) instanceof AnnotationFillerTest_TestClassOptionsBinder);
+		assertNull(ah.findBinder(PrivateTestClass.class));
+
+		PrivateTestClass ptc = new PrivateTestClass();
+		ah.fillOptions(ptc, new String[]{"-x", "7"});
+		assertEquals(7, ptc.xtest);
+	}
+
+	@Test
+	public void testPrimitiveLists() throws DuplicateOptionException, NoArgumentAllowedException, IllegalArgumentException, IllegalAccessException {
+		AnnotationHandler ah = new AnnotationHandler();
+		PrimitiveListTestClass pltc = new PrimitiveListTestClass();
+		ah.fillOptions(pltc, new String[]{"-i", "1", "2", "0x10", "-j", "4", "-l", "5", "6", "-d", "0.5", "2"});
+
+		assertArrayEquals(new int[]{1, 2, 16}, pltc.itest);
+		assertEquals(1, pltc.jtest.size());
+		assertEquals(4, pltc.jtest.get(0));
+		assertArrayEquals(new long[]{5, 6}, pltc.ltest);
+		assertArrayEquals(new double[]{0.5, 2}, pltc.dtest.toArray(), 0);
+
+		PrivateTestClass ptc = new PrivateTestClass();
+		ah.fillOptions(ptc, new String[]{"-y", "8", "9"});
+		assertArrayEquals(new long[]{8, 9}, ptc.ytest);
+	}
+
+	@Test
+	public void testFillAllOptions() throws DuplicateOptionException, NoArgumentAllowedException {
+		AnnotationHandler ah = new AnnotationHandler();
+		TestClass tc = new TestClass();
+		PrivateTestClass ptc = new PrivateTestClass();
+
+		ah.fillAllOptions(Arrays.asList(tc, ptc), new String[]{"-a", "-b", "3", "-x", "4", "-y", "5", "6"});
+
+		assertTrue(tc.atest);
+		assertEquals(3, tc.btest);
+		assertEquals(4, ptc.xtest);
+		assertArrayEquals(new long[]{5, 6}, ptc.ytest);
+		assertSame(
+				ah.getCompositeSchema(Arrays.asList(TestClass.class, PrivateTestClass.class)),
+				ah.getCompositeSchema(Arrays.asList(TestClass.class, PrivateTestClass.class))
+		);
+	}
+
+	@Test
+	public void testGetOptionsOfSeveralObjects() {
+		AnnotationHandler ah = new AnnotationHandler();
+		List<Object> objects = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			objects.add(new PrivateTestClass());
+		}
+
+		List<Character> sequential = ah.getOptions(objects).map(CommandLineOption::getName).collect(Collectors.toList());
+		ah.setParallelDiscoveryThreshold(1);
+		List<Character> parallel = ah.getOptions(objects.toArray()).map(CommandLineOption::getName).collect(Collectors.toList());
+
+		assertEquals(100, sequential.size());
+		assertEquals(sequential, parallel);
+	}
+
+	@Test
+	public void testInheritedAndNestedOptions() throws DuplicateOptionException, NoArgumentAllowedException, IllegalArgumentException, IllegalAccessException {
+		AnnotationHandler ah = new AnnotationHandler();
+		SubTestClass stc = new SubTestClass();
+
+		ah.fillOptions(stc, new String[]{"-x", "1", "-s", "2", "-i", "3", "4"});
+
+		assertEquals(1, ((PrivateTestClass) stc).xtest);
+		assertEquals(2, stc.stest);
+		assertArrayEquals(new int[]{3, 4}, stc.nested.itest);
+		assertEquals(Arrays.asList("xtest", "ytest"), AnnotationHandler.getAnnotatedFields(SubTestClass.class)
+				.limit(2)
+				.map(Field::getName)
+				.collect(Collectors.toList()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCyclicNestedOptions() {
+		new AnnotationHandler().getSchema(CyclicTestClass.class);
+	}
+
+	@Test
+	public void testParsersFromRegistry() throws DuplicateOptionException, NoArgumentAllowedException, IllegalArgumentException, IllegalAccessException {
+		AnnotationHandler ah = new AnnotationHandler();
+		List<OptionSchema.OptionBinding> bindings = ah.getSchema(CustomParserTestClass.class).getBindings();
+
+		assertSame(bindings.get(0).getParser(), bindings.get(1).getParser());
+		assertNotSame(bindings.get(0).getParser(), bindings.get(2).getParser());
+
+		CustomParserTestClass cptc = new CustomParserTestClass();
+		ah.fillOptions(cptc, new String[]{"-u", "abc"});
+		assertEquals("ABC", cptc.utest);
+	}
+
+	@Test
+	public void testResolvedParsers() throws DuplicateOptionException, NoArgumentAllowedException, IllegalArgumentException, IllegalAccessException {
+		AnnotationHandler ah = new AnnotationHandler();
+		ResolvedTypesTestClass rttc = new ResolvedTypesTestClass();
+		ah.fillOptions(rttc, new String[]{"-e", "seconds", "-a", "x,y", "-o", "5", "-s", "DAYS,HOURS,DAYS", "-f", "a", "-f", "b"});
+
+		assertEquals(TimeUnit.SECONDS, rttc.etest);
+		assertArrayEquals(new String[]{"x", "y"}, rttc.atest);
+		assertEquals(Optional.of(5), rttc.otest);
+		assertEquals(new LinkedHashSet<>(Arrays.asList(TimeUnit.DAYS, TimeUnit.HOURS)), rttc.stest);
+		assertEquals(Arrays.asList(new File("a"), new File("b")), rttc.ftest);
+	}
+
+	@Test
+	public void testPrimitiveOptionWithoutValue() throws DuplicateOptionException, NoArgumentAllowedException, IllegalArgumentException, IllegalAccessException {
+		AnnotationHandler ah = new AnnotationHandler();
+		DefaultsTestClass defaults = new DefaultsTestClass();
+
+		ah.fillOptions(defaults, new String[]{"-p", "-t"});
+
+		assertEquals(8080, defaults.port);
+		assertEquals(Integer.valueOf(5), defaults.timeout);
+
+		ah.fillOptions(defaults, new String[]{"-p", "80", "-t", "1"});
+
+		assertEquals(80, defaults.port);
+		assertEquals(Integer.valueOf(1), defaults.timeout);
+	}
+
+	@Test
+	public void testRequiredOption() throws DuplicateOptionException, NoArgumentAllowedException, IllegalArgumentException, IllegalAccessException, IOException {
+		AnnotationHandler ah = new AnnotationHandler();
+		RequiredTestClass rtc = new RequiredTestClass();
+
+		ah.fillOptions(rtc, new String[]{"-o", "out", "-v"});
+		assertEquals("out", rtc.output);
+
+		try {
+			ah.fillOptions(new RequiredTestClass(), new String[]{"-v"});
+			fail("missing required option");
+		} catch (ConstraintViolationException expected) {
+			assertEquals("Missing required Option --output", expected.getMessage());
+		}
+		try {
+			ah.fillOptions(new RequiredTestClass(), ArgumentSources.of("-v"));
+			fail("missing required option");
+		} catch (ConstraintViolationException expected) {
+		}
+		try {
+			ah.fillAllOptions(Arrays.asList(new RequiredTestClass(), new SubTestClass()), new String[]{"-v"});
+			fail("missing required option");
+		} catch (ConstraintViolationException expected) {
+		}
+
+		RequiredTestClass untouched = new RequiredTestClass();
+		List<InvalidArgumentException> errors = ah.fillOptionsCollectingErrors(untouched, new String[]{"-v"});
+		assertEquals(1, errors.size());
+		assertEquals(InvalidArgumentException.Reason.MISSING_REQUIRED_OPTION, errors.get(0).getReason());
+		assertFalse(untouched.verbose);
+	}
+
 	@Test
 	public void test3() {
 		try {
@@ -116,4 +350,94 @@ public class AnnotationFillerTest {
 		}
 
 	}
+
+	public static class DefaultsTestClass {
+
+		@CliOption(name = 'p')
+		int port = 8080;
+
+		@CliOption(name = 't')
+		Integer timeout = 5;
+	}
+
+	public static class RequiredTestClass {
+
+		@CliOption(name = 'o', longName = "output", required = true)
+		String output;
+
+		@CliOption(name = 'v')
+		boolean verbose;
+	}
+
+	public static class PrivateTestClass {
+
+		@CliOption(name = 'x')
+		private int xtest;
+
+		@CliOption(name = 'y')
+		private long[] ytest;
+	}
+
+	public static class SubTestClass extends PrivateTestClass {
+
+		@CliOption(name = 's')
+		int stest;
+
+		@CliNested
+		PrimitiveListTestClass nested;
+	}
+
+	public static class CyclicTestClass {
+
+		@CliNested
+		CyclicTestClass cyclic;
+	}
+
+	public static class CustomParserTestClass {
+
+		@CliOption(name = 'u')
+		@CliArgumentParser(UpperCaseParser.class)
+		String utest;
+
+		@CliOption(name = 'v')
+		@CliArgumentParser(UpperCaseParser.class)
+		String vtest;
+
+		@CliOption(name = 'w')
+		@CliArgumentParser(value = UpperCaseParser.class, shared = false)
+		String wtest;
+	}
+
+	public static class ResolvedTypesTestClass {
+
+		@CliOption(name = 'e')
+		TimeUnit etest;
+
+		@CliOption(name = 'a')
+		String[] atest;
+
+		@CliOption(name = 'o')
+		Optional<Integer> otest;
+
+		@CliOption(name = 's')
+		Set<TimeUnit> stest;
+
+		@CliOption(name = 'f')
+		List<? extends File> ftest;
+	}
+
+	public static class PrimitiveListTestClass {
+
+		@CliOption(name = 'i')
+		int[] itest;
+
+		@CliOption(name = 'j')
+		IntList jtest;
+
+		@CliOption(name = 'l')
+		long[] ltest;
+
+		@CliOption(name = 'd')
+		DoubleList dtest;
+	}
 }
@@ -24,15 +24,39 @@
 
 package de.larsgrefer.cli;
 
+import de.larsgrefer.cli.exceptions.ConstraintViolationException;
+import de.larsgrefer.cli.exceptions.DuplicateOptionException;
+import de.larsgrefer.cli.exceptions.InvalidArgumentException;
+import de.larsgrefer.cli.exceptions.NoArgumentAllowedException;
+import de.larsgrefer.cli.model.ArgumentedOption;
+import de.larsgrefer.cli.model.CommandLineOption;
+import de.larsgrefer.cli.model.ListOption;
+import de.larsgrefer.cli.model.SimpleArgumentedOption;
+import de.larsgrefer.cli.model.SimpleOption;
+import de.larsgrefer.cli.parser.IntParser;
+import de.larsgrefer.cli.parser.StringParser;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import static org.junit.Assert.*;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  *
  * @author lgrefer
  */
 public class ArgsHandlerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
 	
 	public ArgsHandlerTest() {
 	}
@@ -49,5 +73,190 @@ public class ArgsHandlerTest {
 		
 		IntStream.range(8,7).forEach(System.out::println);
 	}
-	
+
+	private List<CommandLineOption> createOptions() {
+		return Arrays.asList(
+				new SimpleOption('a', "alpha", false, ""),
+				new SimpleOption('b', "beta", false, ""),
+				new SimpleArgumentedOption<>('n', "number", false, "", new IntParser()),
+				new ListOption<>('l', "list", false, "", new StringParser())
+		);
+	}
+
+	@Test
+	public void testFillOptionWithArgs() throws DuplicateOptionException, NoArgumentAllowedException {
+		ArgsHandler<List<CommandLineOption>> ah = new ArgsHandler<>(createOptions());
+
+		ah.fillOptionWithArgs(new String[]{"ignored", "-abn", "42", "--list", "x", "y", "--unknown", "z", "-"});
+
+		assertTrue(ah.getOptionByName('a').isSet());
+		assertTrue(ah.getOptionByLongName("beta").isSet());
+		assertEquals(42, ah.getOptionByName('n').getValue());
+		assertEquals(Arrays.asList("x", "y"), ah.getOptionByLongName("list").getValue());
+	}
+
+	@Test
+	public void testFillOptionWithArgFiles() throws DuplicateOptionException, NoArgumentAllowedException, IOException {
+		Path argFile = folder.newFile("args").toPath();
+		Files.write(argFile, "-n 42\n--list x 'y z'\n".getBytes(StandardCharsets.UTF_8));
+		ArgsHandler<List<CommandLineOption>> ah = new ArgsHandler<>(createOptions());
+
+		ah.fillOptionWithArgFiles(new String[]{"-a", "@" + argFile});
+
+		assertTrue(ah.getOptionByName('a').isSet());
+		assertEquals(42, ah.getOptionByName('n').getValue());
+		assertEquals(Arrays.asList("x", "y z"), ah.getOptionByLongName("list").getValue());
+	}
+
+	@Test
+	public void testLazyConversion() throws DuplicateOptionException, NoArgumentAllowedException {
+		ArgsHandler<List<CommandLineOption>> ah = new ArgsHandler<>(createOptions(), ValueConversion.LAZY);
+
+		ah.fillOptionWithArgs(new String[]{"-a", "--list", "x", "y", "-n", "42"});
+
+		assertTrue(ah.getOptionByLongName("list").toString().contains("unconverted"));
+		assertEquals(42, ah.getOptionByName('n').getValue());
+		assertEquals(Arrays.asList("x", "y"), ah.getOptionByLongName("list").getValue());
+		assertFalse(ah.getOptionByLongName("list").toString().contains("unconverted"));
+	}
+
+	@Test
+	public void testFillOptionWithArgsCollectingErrors() throws DuplicateOptionException {
+		ArgsHandler<List<CommandLineOption>> ah = new ArgsHandler<>(createOptions());
+
+		List<InvalidArgumentException> errors = ah.fillOptionWithArgsCollectingErrors(new String[]{"-a", "x", "-n", "1O"});
+		assertEquals(2, errors.size());
+		assertFalse(ah.getOptionByName('a').isSet());
+
+		assertTrue(ah.fillOptionWithArgsCollectingErrors(new String[]{"-a", "-n", "10"}).isEmpty());
+		assertTrue(ah.getOptionByName('a').isSet());
+		assertEquals(10, ah.getOptionByName('n').getValue());
+	}
+
+	@Test
+	public void testConstraints() throws DuplicateOptionException, NoArgumentAllowedException {
+		List<CommandLineOption> options = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			options.add(new SimpleOption('\0', "flag" + i, i == 70, ""));
+		}
+		OptionConstraints constraints = new OptionConstraints()
+				.exclusive(options.get(1), options.get(65), options.get(99))
+				.requires(options.get(2), options.get(3), options.get(80));
+		ArgsHandler<List<CommandLineOption>> ah = new ArgsHandler<>(options, ValueConversion.EAGER, constraints);
+
+		ah.fillOptionWithArgs(new String[]{"--flag70", "--flag65", "--flag2", "--flag3", "--flag80"});
+		assertTrue(options.get(65).isSet());
+
+		assertViolation(ah, "--flag1");
+		assertViolation(ah, "--flag70", "--flag1", "--flag99");
+		assertViolation(ah, "--flag70", "--flag2", "--flag80");
+
+		List<InvalidArgumentException> errors = ah.fillOptionWithArgsCollectingErrors(new String[]{"--flag2", "--flag65", "--flag99", "--flag1"});
+		assertEquals(Arrays.asList(
+				InvalidArgumentException.Reason.MISSING_REQUIRED_OPTION,
+				InvalidArgumentException.Reason.EXCLUSIVE_OPTIONS,
+				InvalidArgumentException.Reason.EXCLUSIVE_OPTIONS,
+				InvalidArgumentException.Reason.MISSING_DEPENDENCY,
+				InvalidArgumentException.Reason.MISSING_DEPENDENCY
+		), errors.stream().map(InvalidArgumentException::getReason).collect(Collectors.toList()));
+		assertEquals("Missing required Option --flag70", errors.get(0).getMessage());
+		assertEquals("Options --flag1 and --flag65 can not be used together", errors.get(1).getMessage());
+		assertEquals("Option --flag2 requires Option --flag80", errors.get(4).getMessage());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstraintOnUnknownOption() throws DuplicateOptionException {
+		new ArgsHandler<>(createOptions(), ValueConversion.EAGER, new OptionConstraints()
+				.exclusive(new SimpleOption('a', "alpha", false, ""), new SimpleOption('b', "beta", false, "")));
+	}
+
+	private static void assertViolation(ArgsHandler<?> ah, String... args) throws NoArgumentAllowedException {
+		try {
+			ah.fillOptionWithArgs(args);
+			fail(Arrays.toString(args));
+		} catch (ConstraintViolationException expected) {
+		}
+	}
+
+	@Test(expected = NoArgumentAllowedException.class)
+	public void testNoArgumentAllowed() throws DuplicateOptionException, NoArgumentAllowedException {
+		ArgsHandler<List<CommandLineOption>> ah = new ArgsHandler<>(createOptions());
+
+		ah.fillOptionWithArgs(new String[]{"--alpha", "x"});
+	}
+
+	@Test
+	public void testLookupTables() throws DuplicateOptionException {
+		List<CommandLineOption> options = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			options.add(new SimpleOption((char) (i + 33), "option-" + i, false, ""));
+		}
+		options.add(new SimpleOption('\0', "Aa", false, ""));
+		options.add(new SimpleOption('\0', "BB", false, ""));
+		ArgsHandler<List<CommandLineOption>> ah = new ArgsHandler<>(options);
+
+		for (int i = 0; i < 500; i++) {
+			assertSame(options.get(i), ah.getOptionByName((char) (i + 33)));
+			assertSame(options.get(i), ah.getOptionByLongName("option-" + i));
+		}
+		assertSame(options.get(500), ah.getOptionByLongName("Aa"));
+		assertSame(options.get(501), ah.getOptionByLongName("BB"));
+		assertNull(ah.getOptionByLongName("option-500"));
+		assertNull(ah.getOptionByLongName("option-"));
+		assertNull(ah.getOptionByName('\u2603'));
+	}
+
+	@Test
+	public void testOptionsOverridingAddValue() throws DuplicateOptionException, NoArgumentAllowedException {
+		for (ValueConversion conversion : Arrays.asList(ValueConversion.EAGER, ValueConversion.LAZY)) {
+			JoiningOption joined = new JoiningOption('j', "join");
+			UpperCaseOption upper = new UpperCaseOption('u', "upper");
+			ArgsHandler<List<CommandLineOption>> ah = new ArgsHandler<>(Arrays.asList(joined, upper), conversion);
+
+			ParseResult result = ah.parse(new String[]{"-u", "abc", "-j", "x", "y", "z"});
+			assertEquals("ABC", result.getValue(upper));
+			assertEquals("x,y,z", result.getValue(joined));
+			assertNull(upper.getValue());
+
+			ah.fillOptionWithArgs(new String[]{"-u", "abc", "-j", "x", "y"});
+			assertEquals("ABC", upper.getValue());
+			assertEquals("x,y", joined.getValue());
+		}
+	}
+
+	/**
+	 * An option as it had to be written before {@link de.larsgrefer.cli.model.ArgumentedOption#accumulate(java.lang.Object, java.lang.String)}
+	 */
+	private static class JoiningOption extends ArgumentedOption<String, String> {
+
+		JoiningOption(char name, String longName) {
+			super(name, longName, false, "", new StringParser());
+		}
+
+		@Override
+		public void addValue(String valueString) {
+			value = value == null ? valueString : value + "," + valueString;
+		}
+	}
+
+	private static class UpperCaseOption extends SimpleArgumentedOption<String> {
+
+		UpperCaseOption(char name, String longName) {
+			super(name, longName, false, "", new StringParser());
+		}
+
+		@Override
+		public void addValue(String valueString) {
+			value = valueString.toUpperCase();
+		}
+	}
+
+	@Test(expected = DuplicateOptionException.class)
+	public void testDuplicateLongName() throws DuplicateOptionException {
+		new ArgsHandler<>(Arrays.asList(
+				new SimpleOption('a', "same", false, ""),
+				new SimpleOption('b', "same", false, "")
+		));
+	}
+
 }
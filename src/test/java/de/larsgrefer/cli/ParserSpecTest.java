@@ -0,0 +1,358 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 lgrefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli;
+
+import de.larsgrefer.cli.collections.IntList;
+import de.larsgrefer.cli.exceptions.DuplicateOptionException;
+import de.larsgrefer.cli.exceptions.InvalidArgumentException;
+import de.larsgrefer.cli.exceptions.NoArgumentAllowedException;
+import de.larsgrefer.cli.model.CommandLineOption;
+import de.larsgrefer.cli.model.IntListOption;
+import de.larsgrefer.cli.model.ListOption;
+import de.larsgrefer.cli.model.SimpleArgumentedOption;
+import de.larsgrefer.cli.model.SimpleOption;
+import de.larsgrefer.cli.parser.ErrorChannel;
+import de.larsgrefer.cli.parser.IntParser;
+import de.larsgrefer.cli.parser.StringParser;
+import de.larsgrefer.cli.parser.UrlParser;
+import de.larsgrefer.cli.source.ArgumentSources;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author lgrefer
+ */
+public class ParserSpecTest {
+
+	private final List<CommandLineOption> options = Arrays.asList(
+			new SimpleOption('v', "verbose", false, ""),
+			new SimpleArgumentedOption<>('n', "number", false, "", new IntParser()),
+			new ListOption<>('l', "list", false, "", new StringParser())
+	);
+
+	@Test
+	public void testIndependentResults() throws DuplicateOptionException, NoArgumentAllowedException {
+		ParserSpec spec = new ParserSpec(options);
+
+		ParseResult r1 = spec.parse(new String[]{"-v", "-n", "1", "-l", "a", "b"});
+		ParseResult r2 = spec.parse(new String[]{"--number", "2", "--list", "c"});
+
+		assertTrue(r1.isSet('v'));
+		assertEquals(1, r1.getValue('n'));
+		assertEquals(Arrays.asList("a", "b"), r1.getValue(options.get(2)));
+
+		assertFalse(r2.isSet("verbose"));
+		assertEquals(Boolean.FALSE, r2.getValue("verbose"));
+		assertEquals(2, r2.getValue("number"));
+		assertEquals(Arrays.asList("c"), r2.getValue(options.get(2)));
+
+		for (CommandLineOption option : options) {
+			assertFalse(option.isSet());
+		}
+	}
+
+	@Test
+	public void testConcurrentParses() throws DuplicateOptionException {
+		ParserSpec spec = new ParserSpec(options);
+
+		assertTrue(IntStream.range(0, 10_000).parallel().allMatch(i -> {
+			try {
+				ParseResult result = spec.parse(new String[]{"-n", Integer.toString(i), "-l", Integer.toString(i)});
+				return result.getValue('n').equals(i) && result.getValue('l').equals(Arrays.asList(Integer.toString(i)));
+			} catch (NoArgumentAllowedException ex) {
+				return false;
+			}
+		}));
+	}
+
+	@Test
+	public void testParseCollectingErrors() throws DuplicateOptionException, IOException {
+		List<CommandLineOption> urlOptions = new ArrayList<>(options);
+		urlOptions.add(new SimpleArgumentedOption<>('u', "url", false, "", new UrlParser()));
+		ParserSpec spec = new ParserSpec(urlOptions, ValueConversion.LAZY);
+		String[] args = {"-vx", "--number", "12a", "-v", "oops", "--nope", "-u", "not a url", "-n", "7", "-l", "a"};
+
+		ParseResult result = spec.parseCollectingErrors(args);
+
+		assertTrue(result.hasErrors());
+		List<InvalidArgumentException> errors = result.getErrors();
+		assertEquals(5, errors.size());
+
+		assertEquals(InvalidArgumentException.Reason.UNKNOWN_OPTION, errors.get(0).getReason());
+		assertEquals("-x", errors.get(0).getOption());
+		assertEquals(0, errors.get(0).getIndex());
+
+		assertEquals(InvalidArgumentException.Reason.INVALID_VALUE, errors.get(1).getReason());
+		assertEquals("--number", errors.get(1).getOption());
+		assertEquals("12a", errors.get(1).getArgument());
+		assertNull(errors.get(1).getCause());
+		assertTrue(errors.get(1).getMessage().contains(ErrorChannel.INVALID_DIGIT));
+
+		assertEquals(InvalidArgumentException.Reason.NO_ARGUMENT_ALLOWED, errors.get(2).getReason());
+		assertEquals("oops", errors.get(2).getArgument());
+		assertEquals(4, errors.get(2).getIndex());
+
+		assertEquals("--nope", errors.get(3).getOption());
+
+		assertEquals(InvalidArgumentException.Reason.INVALID_VALUE, errors.get(4).getReason());
+		assertTrue(errors.get(4).getCause() instanceof IllegalArgumentException);
+
+		assertEquals(0, errors.get(0).getStackTrace().length);
+		assertEquals(7, result.getInt(1));
+		assertEquals(Arrays.asList("a"), result.getValue('l'));
+
+		assertEquals(5, spec.parseCollectingErrors(ArgumentSources.of(args)).getErrors().size());
+		assertFalse(spec.parseCollectingErrors(new String[]{"-v", "-n", "1"}).hasErrors());
+	}
+
+	@Test
+	public void testPrimitiveValues() throws DuplicateOptionException, NoArgumentAllowedException {
+		ParserSpec spec = new ParserSpec(options);
+
+		ParseResult result = spec.parse(new String[]{"-n", "0x10"});
+
+		assertTrue(result.hasPrimitiveValue(1));
+		assertEquals(16, result.getInt(1));
+		assertEquals(16, result.getValue('n'));
+		assertFalse(result.hasPrimitiveValue(2));
+
+		result = spec.parse(new String[]{"-n"});
+
+		assertTrue(result.isSet(1));
+		assertFalse(result.hasPrimitiveValue(1));
+		assertNull(result.getValue(1));
+	}
+
+	@Test
+	public void testPrimitiveOptionOverridingAccumulate() throws DuplicateOptionException, NoArgumentAllowedException {
+		ParserSpec spec = new ParserSpec(Arrays.asList(new DoublingOption('t', "twice")));
+
+		assertEquals(42, spec.parse(new String[]{"-t", "21"}).getValue('t'));
+		assertEquals(42, spec.parseCollectingErrors(new String[]{"-t", "21"}).getValue('t'));
+		assertFalse(spec.parse(new String[]{"-t", "21"}).hasPrimitiveValue(0));
+	}
+
+	private static class DoublingOption extends SimpleArgumentedOption<Integer> {
+
+		DoublingOption(char name, String longName) {
+			super(name, longName, false, "", new IntParser());
+		}
+
+		@Override
+		public Integer accumulate(Integer current, String valueString) {
+			return 2 * super.accumulate(current, valueString);
+		}
+	}
+
+	@Test
+	public void testOptionKeys() throws DuplicateOptionException, NoArgumentAllowedException {
+		ParserSpec spec = new ParserSpec(options);
+		SimpleArgumentedOption<Integer> number = (SimpleArgumentedOption<Integer>) options.get(1);
+		OptionKey<Integer> key = spec.keyOf(number);
+
+		ParseResult result = spec.parse(new String[]{"-n", "3"});
+
+		assertTrue(result.isSet(key));
+		assertEquals(Integer.valueOf(3), result.get(key));
+		assertEquals(3, result.getInt(key.getOrdinal()));
+		assertNull(spec.parse(new String[]{"-v"}).get(key));
+
+		ParserSpec other = new ParserSpec(options);
+		try {
+			other.parse(new String[0]).get(key);
+			fail("a key of another spec must be rejected");
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+
+	@Test
+	public void testManyOptions() throws DuplicateOptionException, NoArgumentAllowedException {
+		List<CommandLineOption> many = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			switch (i % 3) {
+				case 0:
+					many.add(new SimpleOption('\0', "flag-" + i, false, ""));
+					break;
+				case 1:
+					many.add(new SimpleArgumentedOption<>('\0', "int-" + i, false, "", new IntParser()));
+					break;
+				default:
+					many.add(new SimpleArgumentedOption<>('\0', "string-" + i, false, "", new StringParser()));
+					break;
+			}
+		}
+		ParserSpec spec = new ParserSpec(many);
+
+		ParseResult result = spec.parse(new String[]{"--flag-0", "--int-1", "1", "--string-2", "two", "--flag-198",
+			"--int-199", "199", "--string-197", "last"});
+
+		assertTrue(result.isSet(0));
+		assertTrue(result.isSet(198));
+		assertFalse(result.isSet(3));
+		assertEquals(1, result.getInt(1));
+		assertEquals(199, result.getInt(199));
+		assertEquals("two", result.getValue(2));
+		assertEquals("last", result.getValue(197));
+		assertNull(result.getValue(5));
+		assertEquals(Boolean.FALSE, result.getValue(3));
+	}
+
+	@Test(expected = NoArgumentAllowedException.class)
+	public void testFlagWithValue() throws DuplicateOptionException, NoArgumentAllowedException {
+		new ParserSpec(options).parse(new String[]{"-v", "value"});
+	}
+
+	@Test
+	public void testAbbreviations() throws DuplicateOptionException, NoArgumentAllowedException {
+		List<CommandLineOption> abbreviated = Arrays.asList(
+				new SimpleOption('\0', "verbose", false, ""),
+				new SimpleOption('\0', "version", false, ""),
+				new SimpleOption('\0', "ver", false, ""),
+				new SimpleArgumentedOption<>('\0', "number", false, "", new IntParser())
+		);
+		ParserSpec spec = new ParserSpec(abbreviated);
+
+		ParseResult result = spec.parse(new String[]{"--verb", "--n", "5"});
+		assertTrue(result.isSet("verbose"));
+		assertFalse(result.isSet("version"));
+		assertEquals(5, result.getValue("number"));
+
+		assertTrue(spec.parse(new String[]{"--ver"}).isSet("ver"));
+		assertTrue(spec.parse(new String[]{"--versi"}).isSet("version"));
+		assertEquals(-1, spec.ordinalOf("num"));
+
+		result = spec.parseCollectingErrors(new String[]{"--v", "--x"});
+		assertEquals(2, result.getErrors().size());
+		InvalidArgumentException ambiguous = result.getErrors().get(0);
+		assertEquals(InvalidArgumentException.Reason.AMBIGUOUS_OPTION, ambiguous.getReason());
+		assertEquals("Ambiguous Option --v at argument 0, could be --ver, --verbose, --version", ambiguous.getMessage());
+		assertEquals(InvalidArgumentException.Reason.UNKNOWN_OPTION, result.getErrors().get(1).getReason());
+	}
+
+	@Test
+	public void testAttachedValues() throws DuplicateOptionException, NoArgumentAllowedException, IOException {
+		String[] args = {"--num=0x10", "--list=a=b", "c", "--verbose"};
+		for (ValueConversion conversion : Arrays.asList(ValueConversion.EAGER, ValueConversion.LAZY)) {
+			ParseResult result = new ParserSpec(options, conversion).parse(args);
+			assertEquals(16, result.getInt(1));
+			assertEquals(Arrays.asList("a=b", "c"), result.getValue(2));
+			assertTrue(result.isSet(0));
+		}
+		ParseResult result = new ParserSpec(options).parse(ArgumentSources.of(Arrays.asList(args).iterator()));
+		assertEquals(16, result.getInt(1));
+		assertEquals(Arrays.asList("a=b", "c"), result.getValue(2));
+
+		result = new ParserSpec(options).parseCollectingErrors(new String[]{"--verbose=yes", "--number=x"});
+		assertEquals(2, result.getErrors().size());
+		assertEquals(InvalidArgumentException.Reason.NO_ARGUMENT_ALLOWED, result.getErrors().get(0).getReason());
+		assertEquals("yes", result.getErrors().get(0).getArgument());
+		assertEquals(InvalidArgumentException.Reason.INVALID_VALUE, result.getErrors().get(1).getReason());
+	}
+
+	@Test(expected = NoArgumentAllowedException.class)
+	public void testAttachedValueForFlag() throws DuplicateOptionException, NoArgumentAllowedException {
+		new ParserSpec(options).parse(new String[]{"--verbose=yes"});
+	}
+
+	@Test
+	public void testParseSource() throws DuplicateOptionException, NoArgumentAllowedException, IOException {
+		List<CommandLineOption> streamOptions = Arrays.asList(
+				new SimpleOption('v', "verbose", false, ""),
+				new SimpleArgumentedOption<>('n', "number", false, "", new IntParser()),
+				new IntListOption('i', "ints", false, "", new IntParser())
+		);
+		ParserSpec spec = new ParserSpec(streamOptions);
+
+		Iterator<String> args = Stream.concat(
+				Stream.of("-v", "--number", "7", "-i"),
+				IntStream.range(0, 100_000).mapToObj(Integer::toString)
+		).iterator();
+		ParseResult result = spec.parse(ArgumentSources.of(args));
+
+		assertTrue(result.isSet('v'));
+		assertEquals(7, result.getInt(1));
+		IntList ints = (IntList) result.getValue('i');
+		assertEquals(100_000, ints.size());
+		assertEquals(99_999, ints.get(99_999));
+	}
+
+	@Test(expected = NoArgumentAllowedException.class)
+	public void testParseSourceNoArgumentAllowed() throws DuplicateOptionException, NoArgumentAllowedException, IOException {
+		new ParserSpec(options).parse(ArgumentSources.of("-v", "x"));
+	}
+
+	@Test
+	public void testLazyConversion() throws DuplicateOptionException, NoArgumentAllowedException {
+		AtomicInteger conversions = new AtomicInteger();
+		ListOption<String> list = new ListOption<>('l', "list", false, "", arg -> {
+			conversions.incrementAndGet();
+			return arg;
+		});
+		ParserSpec spec = new ParserSpec(Arrays.asList(list, options.get(1)), ValueConversion.LAZY);
+
+		ParseResult result = spec.parse(new String[]{"-l", "a", "b", "-n", "1", "--list", "c"});
+
+		assertEquals(0, conversions.get());
+		assertEquals(1, result.getInt(1));
+		assertTrue(IntStream.range(0, 100).parallel().allMatch(i -> result.getValue(list).equals(Arrays.asList("a", "b", "c"))));
+		assertEquals(3, conversions.get());
+	}
+
+	@Test
+	public void testParallelConversion() throws DuplicateOptionException, NoArgumentAllowedException {
+		List<CommandLineOption> parallelOptions = Arrays.asList(
+				new ListOption<>('l', "list", false, "", new StringParser()),
+				new IntListOption('i', "ints", false, "", new IntParser())
+		);
+		String[] args = Stream.concat(
+				Stream.of("-l"),
+				IntStream.range(0, 10_000).mapToObj(i -> i % 1000 != 0 ? Integer.toString(i) : i % 2000 == 0 ? "-l" : "-i")
+		).toArray(String[]::new);
+
+		ParseResult expected = new ParserSpec(parallelOptions).parse(args);
+		for (ValueConversion conversion : Arrays.asList(ValueConversion.EAGER.parallel(10), ValueConversion.LAZY.parallel(10))) {
+			ParseResult result = new ParserSpec(parallelOptions, conversion).parse(args);
+
+			assertEquals(expected.getValue('l'), result.getValue('l'));
+			assertEquals(expected.getValue('i'), result.getValue('i'));
+		}
+		assertEquals(4995, ((List) expected.getValue('l')).size());
+		assertEquals(4995, ((IntList) expected.getValue('i')).size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidParallelThreshold() {
+		ValueConversion.EAGER.parallel(0);
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 lgrefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli;
+
+import de.larsgrefer.cli.annotations.CliOption;
+import de.larsgrefer.cli.exceptions.ConstraintViolationException;
+import de.larsgrefer.cli.exceptions.DuplicateOptionException;
+import de.larsgrefer.cli.exceptions.NoArgumentAllowedException;
+import de.larsgrefer.cli.exceptions.UnknownSubcommandException;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author lgrefer
+ */
+public class SubcommandRouterTest {
+
+	@Test
+	public void testRoute() throws UnknownSubcommandException, DuplicateOptionException, NoArgumentAllowedException {
+		AtomicInteger removes = new AtomicInteger();
+		GlobalOptions global = new GlobalOptions();
+		SubcommandRouter router = new SubcommandRouter()
+				.register("add", AddOptions::new)
+				.register("remove", () -> {
+					removes.incrementAndGet();
+					return new AddOptions();
+				});
+		router.setGlobalOptions(global);
+
+		SubcommandRouter.Route route = router.route(new String[]{"-v", "add", "-n", "3", "--force"});
+
+		assertEquals("add", route.getName());
+		assertTrue(global.verbose);
+		AddOptions options = (AddOptions) route.getOptions();
+		assertEquals(3, options.number);
+		assertTrue(options.force);
+		assertEquals(0, removes.get());
+	}
+
+	@Test(expected = UnknownSubcommandException.class)
+	public void testUnknownSubcommand() throws UnknownSubcommandException, DuplicateOptionException, NoArgumentAllowedException {
+		new SubcommandRouter().register("add", AddOptions::new).route(new String[]{"-v", "delete"});
+	}
+
+	@Test(expected = UnknownSubcommandException.class)
+	public void testMissingSubcommand() throws UnknownSubcommandException, DuplicateOptionException, NoArgumentAllowedException {
+		new SubcommandRouter().register("add", AddOptions::new).route(new String[]{"-v"});
+	}
+
+	@Test(expected = ConstraintViolationException.class)
+	public void testMissingRequiredOption() throws UnknownSubcommandException, DuplicateOptionException, NoArgumentAllowedException {
+		new SubcommandRouter().register("commit", CommitOptions::new).route(new String[]{"commit", "--amend"});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDuplicateSubcommand() {
+		new SubcommandRouter().register("add", AddOptions::new).register("add", AddOptions::new);
+	}
+
+	public static class GlobalOptions {
+
+		@CliOption(name = 'v')
+		boolean verbose;
+	}
+
+	public static class AddOptions {
+
+		@CliOption(name = 'n')
+		int number;
+
+		@CliOption(name = 'f', longName = "force")
+		boolean force;
+	}
+
+	public static class CommitOptions {
+
+		@CliOption(name = 'm', required = true)
+		String message;
+
+		@CliOption(longName = "amend")
+		boolean amend;
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 lgrefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.binding;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author lgrefer
+ */
+public class FieldWritersTest {
+
+	@Test
+	public void testPrimitiveWriters() throws NoSuchFieldException {
+		Target t = new Target();
+
+		FieldWriters.forField(Target.class.getDeclaredField("i")).setInt(t, 42);
+		FieldWriters.forField(Target.class.getDeclaredField("l")).setLong(t, 1L << 40);
+		FieldWriters.forField(Target.class.getDeclaredField("s")).setShort(t, (short) 7);
+		FieldWriters.forField(Target.class.getDeclaredField("b")).setByte(t, (byte) 3);
+		FieldWriters.forField(Target.class.getDeclaredField("c")).setChar(t, 'x');
+		FieldWriters.forField(Target.class.getDeclaredField("z")).setBoolean(t, true);
+
+		assertEquals(42, t.i);
+		assertEquals(1L << 40, t.l);
+		assertEquals(7, t.s);
+		assertEquals(3, t.b);
+		assertEquals('x', t.c);
+		assertTrue(t.z);
+	}
+
+	@Test
+	public void testBoxedAndObjectWriters() throws NoSuchFieldException {
+		Target t = new Target();
+
+		FieldWriters.forField(Target.class.getDeclaredField("i")).set(t, 5);
+		FieldWriters.forField(Target.class.getDeclaredField("boxed")).setInt(t, 6);
+		FieldWriters.forField(Target.class.getDeclaredField("text")).set(t, "foo");
+
+		assertEquals(5, t.i);
+		assertEquals(Integer.valueOf(6), t.boxed);
+		assertEquals("foo", t.text);
+	}
+
+	static class Target {
+
+		private int i;
+		private long l;
+		private short s;
+		private byte b;
+		private char c;
+		private boolean z;
+		private Integer boxed;
+		private String text;
+	}
+}
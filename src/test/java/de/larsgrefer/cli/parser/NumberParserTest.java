@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 lgrefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.parser;
+
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author lgrefer
+ */
+public class NumberParserTest {
+
+	private static final String[] VALID = {
+		"0", "1", "-1", "+1", "42", "0x2A", "0X2a", "#2a", "-0x2A", "052", "-052", "00",
+		"127", "-128", "32767", "-32768", "2147483647", "-2147483648",
+		"9223372036854775807", "-9223372036854775808", "0x7fffffffffffffff", "-0x8000000000000000"
+	};
+
+	private static final String[] INVALID = {
+		"", "-", "+", "0x", "#", "--1", "-+1", "0x-1", "1a", "09", " 1", "9223372036854775808", "-9223372036854775809"
+	};
+
+	@Test
+	public void testDecodeLikeJdk() {
+		for (String value : VALID) {
+			assertEquals(value, expectedLong(value), result(() -> new LongParser().parseLong(value)));
+			assertEquals(value, expectedInt(value), result(() -> (long) new IntParser().parseInt(value)));
+			assertEquals(value, expectedShort(value), result(() -> (long) new ShortParser().parseShort(value)));
+			assertEquals(value, expectedByte(value), result(() -> (long) new ByteParser().parseByte(value)));
+		}
+		for (String value : INVALID) {
+			assertNull(value, result(() -> new LongParser().parseLong(value)));
+			assertNull(value, result(() -> (long) new IntParser().parseInt(value)));
+		}
+	}
+
+	@Test
+	public void testBoxedParse() {
+		assertEquals(Integer.valueOf(42), new IntParser().parse("0x2A"));
+		assertEquals(Character.valueOf('x'), new CharParser().parse("xyz"));
+	}
+
+	@Test
+	public void testSlicesAndErrorChannel() {
+		ErrorChannel errors = new ErrorChannel();
+		String arg = "--size=0x7f,--count=12a";
+
+		assertEquals(127, new ByteParser().parseByte(arg, 7, 11, errors));
+		assertFalse(errors.hasError());
+
+		new IntParser().parseInt(arg, 20, 23, errors);
+		assertEquals(ErrorChannel.INVALID_DIGIT, errors.getReason());
+		assertEquals("12a", errors.getValue().toString());
+		assertEquals(2, errors.getPosition());
+
+		new LongParser().parseLong(arg, 0, 1, errors);
+		assertEquals("the first error is kept", ErrorChannel.INVALID_DIGIT, errors.getReason());
+
+		errors.clear();
+		new ShortParser().parseShort("40000", 0, 5, errors);
+		assertEquals(ErrorChannel.OUT_OF_RANGE, errors.getReason());
+	}
+
+	@Test
+	public void testSizes() {
+		SizeParser parser = new SizeParser();
+
+		assertEquals(512, parser.parseLong("512"));
+		assertEquals(512, parser.parseLong("512b"));
+		assertEquals(64 * 1024, parser.parseLong("64k"));
+		assertEquals(64 * 1024, parser.parseLong("64KiB"));
+		assertEquals(3L << 20, parser.parseLong("3MB"));
+		assertEquals(2L << 30, parser.parseLong("2g"));
+		assertEquals(Long.valueOf(1L << 40), parser.parse("1T"));
+		for (String invalid : new String[]{"", "k", "12x", "1bb", "0x10k", "8388608t", "1.5g"}) {
+			assertNull(invalid, result(() -> parser.parseLong(invalid)));
+		}
+	}
+
+	@Test
+	public void testDurations() {
+		DurationParser parser = new DurationParser();
+
+		assertEquals(500, parser.parseLong("500ms"));
+		assertEquals(500, parser.parseLong("500"));
+		assertEquals(30000, parser.parseLong("30s"));
+		assertEquals(7200000, parser.parseLong("2h"));
+		assertEquals(86400000, parser.parseLong("1d"));
+		assertEquals(1, parser.parseLong("1999us"));
+		assertEquals(0, parser.parseLong("10ns"));
+		assertEquals(120, new DurationParser(TimeUnit.SECONDS).parseLong("2m"));
+		assertEquals(2000000, new DurationParser(TimeUnit.NANOSECONDS).parseLong("2ms"));
+		for (String invalid : new String[]{"", "ms", "5w", "5sec", "1.5s", "106751991167301d"}) {
+			assertNull(invalid, result(() -> parser.parseLong(invalid)));
+		}
+	}
+
+	private static Long result(LongSupplierWithException supplier) {
+		try {
+			return supplier.get();
+		} catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+
+	private static Long expectedLong(String value) {
+		return result(() -> Long.decode(value));
+	}
+
+	private static Long expectedInt(String value) {
+		return result(() -> (long) Integer.decode(value));
+	}
+
+	private static Long expectedShort(String value) {
+		return result(() -> (long) Short.decode(value));
+	}
+
+	private static Long expectedByte(String value) {
+		return result(() -> (long) Byte.decode(value));
+	}
+
+	private interface LongSupplierWithException {
+
+		long get();
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 lgrefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package de.larsgrefer.cli.parser;
+
+import de.larsgrefer.cli.AnnotationHandler;
+import de.larsgrefer.cli.annotations.CliParser;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.regex.Pattern;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author lgrefer
+ */
+public class ParserDiscoveryTest {
+
+	@Test
+	public void testIndexedParsers() {
+		Map<Type, ArgumentParser<?>> parsers = ParserDiscovery.getDiscoveredParsers();
+
+		assertTrue(parsers.get(Range.class) instanceof RangeParser);
+		assertSame(ParserRegistry.getDefault().getParser(RangeParser.class), parsers.get(Range.class));
+		assertEquals(7, ((Range) parsers.get(Range.class).parse("3-7")).to);
+
+		assertTrue(parsers.get(Float.class) instanceof FloatParser);
+		assertSame(parsers.get(Float.class), parsers.get(float.class));
+	}
+
+	@Test
+	public void testServiceLoaderParsers() {
+		Map<Type, ArgumentParser<?>> parsers = ParserDiscovery.getDiscoveredParsers();
+
+		assertTrue(parsers.get(Pattern.class) instanceof PatternParser);
+		assertSame(parsers, ParserDiscovery.getDiscoveredParsers());
+		assertSame(parsers.get(Pattern.class), new AnnotationHandler().getParserDatabase().get(Pattern.class));
+	}
+
+	@Test
+	public void testResolveValueType() {
+		assertEquals(Range.class, ParserDiscovery.resolveValueType(RangeParser.class));
+		assertEquals(Float.class, ParserDiscovery.resolveValueType(FloatParser.class));
+		assertEquals(Long.class, ParserDiscovery.resolveValueType(LongParser.class));
+		assertNull(ParserDiscovery.resolveValueType(GenericParser.class));
+	}
+
+	public static class Range {
+
+		final int from;
+		final int to;
+
+		Range(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+	}
+
+	@CliParser
+	public static class RangeParser implements ArgumentParser<Range> {
+
+		@Override
+		public Range parse(String arg) {
+			int dash = arg.indexOf('-');
+			return new Range(Integer.parseInt(arg.substring(0, dash)), Integer.parseInt(arg.substring(dash + 1)));
+		}
+	}
+
+	@CliParser
+	static class FloatParser implements ArgumentParser<Float> {
+
+		private FloatParser() {
+		}
+
+		@Override
+		public Float parse(String arg) {
+			return Float.valueOf(arg);
+		}
+	}
+
+	public static class PatternParser implements ArgumentParser<Pattern> {
+
+		@Override
+		public Pattern parse(String arg) {
+			return Pattern.compile(arg);
+		}
+	}
+
+	static class GenericParser<T> implements ArgumentParser<T> {
+
+		@Override
+		public T parse(String arg) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 lgrefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.parser;
+
+import de.larsgrefer.cli.exceptions.ParserInstantiationException;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author lgrefer
+ */
+public class ParserRegistryTest {
+
+	@Test
+	public void testSharedAndPerUseInstances() {
+		ParserRegistry registry = new ParserRegistry();
+
+		assertSame(registry.getParser(UpperCaseParser.class), registry.getParser(UpperCaseParser.class, true));
+		assertNotSame(registry.getParser(UpperCaseParser.class, false), registry.getParser(UpperCaseParser.class, false));
+		assertNotSame(registry.getParser(UpperCaseParser.class), new ParserRegistry().getParser(UpperCaseParser.class));
+		assertEquals("ABC", registry.getParser(UpperCaseParser.class).parse("abc"));
+	}
+
+	@Test(expected = ParserInstantiationException.class)
+	public void testNoConstructor() {
+		new ParserRegistry().getParser(PrefixParser.class);
+	}
+
+	public static class UpperCaseParser implements ArgumentParser<String> {
+
+		private UpperCaseParser() {
+		}
+
+		@Override
+		public String parse(String arg) {
+			return arg.toUpperCase();
+		}
+	}
+
+	public static class PrefixParser implements ArgumentParser<String> {
+
+		private final String prefix;
+
+		public PrefixParser(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public String parse(String arg) {
+			return prefix + arg;
+		}
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 lgrefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package de.larsgrefer.cli.parser;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author lgrefer
+ */
+public class ParserResolverTest {
+
+	@Test
+	public void testExactAndCached() {
+		Map<Type, ArgumentParser<?>> database = new HashMap<>();
+		StringParser stringParser = new StringParser();
+		database.put(String.class, stringParser);
+		ParserResolver resolver = new ParserResolver(database);
+
+		assertSame(stringParser, resolver.resolve(String.class));
+		assertSame(resolver.resolve(TimeUnit.class), resolver.resolve(TimeUnit.class));
+		assertNull(resolver.resolve(Thread.class));
+		assertNull(resolver.resolve(Thread.class));
+	}
+
+	@Test
+	public void testSuperTypes() {
+		Map<Type, ArgumentParser<?>> database = new HashMap<>();
+		database.put(CharSequence.class, arg -> arg.equals("builder") ? new StringBuilder(arg) : arg);
+		ParserResolver resolver = new ParserResolver(database);
+
+		ArgumentParser<?> parser = resolver.resolve(String.class);
+		assertEquals("abc", parser.parse("abc"));
+		try {
+			parser.parse("builder");
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+
+	@Test
+	public void testEnums() {
+		ArgumentParser<?> parser = new ParserResolver(new HashMap<>()).resolve(TimeUnit.class);
+
+		assertEquals(TimeUnit.MINUTES, parser.parse("MINUTES"));
+		assertEquals(TimeUnit.MINUTES, parser.parse("minutes"));
+		try {
+			parser.parse("fortnights");
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+
+	@Test
+	public void testAmbiguousEnumNames() {
+		EnumParser<Mode> parser = new EnumParser<>(Mode.class);
+
+		assertEquals(Mode.fast, parser.parse("fast"));
+		assertEquals(Mode.SAFE, parser.parse("safe"));
+		try {
+			parser.parse("Fast");
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+
+	@Test
+	public void testGenericTypes() throws NoSuchFieldException {
+		Map<Type, ArgumentParser<?>> database = new HashMap<>();
+		database.put(Integer.class, new IntParser());
+		ParserResolver resolver = new ParserResolver(database);
+
+		Type values = GenericFields.class.getDeclaredField("values").getGenericType();
+		assertArrayEquals(new Integer[]{1, 2}, (Integer[]) resolver.resolve(values).parse("1,2"));
+
+		ParameterizedType bounded = (ParameterizedType) GenericFields.class.getDeclaredField("bounded").getGenericType();
+		assertSame(database.get(Integer.class), resolver.resolve(bounded.getActualTypeArguments()[0]));
+	}
+
+	enum Mode {
+		fast, FAST, SAFE
+	}
+
+	static class GenericFields<T extends Integer> {
+
+		List<? super Integer> bounded;
+		T[] values;
+	}
+}
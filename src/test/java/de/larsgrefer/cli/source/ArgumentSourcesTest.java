@@ -0,0 +1,103 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 lgrefer.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.larsgrefer.cli.source;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ * @author lgrefer
+ */
+public class ArgumentSourcesTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testReader() throws IOException {
+		ArgumentSource source = ArgumentSources.of(new StringReader(
+				"  -a\tb\n\"c d\" 'e \\f' g\"h \\\"i\\\"\" C:\\dir\\file \"\"\n"
+		));
+
+		assertEquals(Arrays.asList("-a", "b", "c d", "e \\f", "gh \"i\"", "C:\\dir\\file", ""), readAll(source));
+	}
+
+	@Test(expected = IOException.class)
+	public void testMissingQuote() throws IOException {
+		readAll(ArgumentSources.of(new StringReader("a \"b c")));
+	}
+
+	@Test
+	public void testArgFiles() throws IOException {
+		Path argFile = folder.newFile("args").toPath();
+		Files.write(argFile, "-x 'one two'\n@three\n".getBytes(StandardCharsets.UTF_8));
+
+		ArgumentSource source = ArgumentSources.withArgFiles(ArgumentSources.of("-a", "@" + argFile, "@@b", "@"));
+
+		assertEquals(Arrays.asList("-a", "-x", "one two", "@three", "@b", "@"), readAll(source));
+	}
+
+	@Test
+	public void testMappedFile() throws IOException {
+		Path file = folder.newFile("mapped").toPath();
+		Files.write(file, "  -a\tb\n\"c d\" 'e \\f' g\"h \\\"i\\\"\" C:\\dir\\file \"\" \u00e4\u00f6\u00fc\n".getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(Arrays.asList("-a", "b", "c d", "e \\f", "gh \"i\"", "C:\\dir\\file", "", "\u00e4\u00f6\u00fc"), readAll(ArgumentSources.of(file)));
+
+		try (ArgumentSource source = ArgumentSources.of(file)) {
+			CharSequence first = source.next();
+			assertFalse(first instanceof String);
+			assertEquals("a", first.subSequence(1, 2).toString());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testMappedFileMissingQuote() throws IOException {
+		Path file = folder.newFile("quote").toPath();
+		Files.write(file, "a 'b c".getBytes(StandardCharsets.UTF_8));
+		readAll(ArgumentSources.of(file));
+	}
+
+	private static List<String> readAll(ArgumentSource source) throws IOException {
+		List<String> args = new ArrayList<>();
+		try (ArgumentSource s = source) {
+			for (CharSequence arg = s.next(); arg != null; arg = s.next()) {
+				args.add(arg.toString());
+			}
+		}
+		return args;
+	}
+}